@@ -0,0 +1,78 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Создание Booking из 8 потоков: все потоки бронируют один горячий Item (блокировка слотов Item
+ * и проверка пересечений сериализуют запросы) против своего Item у каждого потока. Периоды не пересекаются -
+ * каждый вызов создаёт Booking.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class BookingContentionBenchmark {
+
+    @Benchmark
+    public BookingResponseDto create(Booker booker) {
+        LocalDateTime start = booker.contention.slotBase.plusHours(booker.slot.getAndIncrement());
+        return booker.bookingService.create(new BookingRequestDto(booker.itemId, start, start.plusMinutes(30)),
+                booker.bookerId);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Contention {
+        @Param({"hot", "distinct"})
+        public String items;
+
+        private final AtomicInteger threads = new AtomicInteger();
+        private final AtomicLong hotSlot = new AtomicLong(); // общий счётчик периодов горячего Item
+        private LocalDateTime slotBase;
+
+        @Setup
+        public void setUp() {
+            slotBase = LocalDateTime.now().plusYears(2); // после всех сгенерированных Booking - без пересечений
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Booker {
+        private BookingService bookingService;
+        private Contention contention;
+        private AtomicLong slot;
+        private long itemId;
+        private long bookerId;
+
+        @Setup
+        public void setUp(ShareItDataset dataset, Contention contention) {
+            boolean hot = "hot".equals(contention.items);
+            int item = dataset.availableItems[hot ? 0 : contention.threads.getAndIncrement()];
+            bookingService = dataset.bean(BookingService.class);
+            this.contention = contention;
+            slot = hot ? contention.hotSlot : new AtomicLong();
+            itemId = dataset.itemIds[item];
+            bookerId = dataset.userIds[0] == dataset.itemOwnerIds[item] ? dataset.userIds[1] : dataset.userIds[0];
+        }
+    }
+}
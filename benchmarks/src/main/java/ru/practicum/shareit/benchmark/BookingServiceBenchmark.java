@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    private BookingService bookingService;
+    private LocalDateTime slotBase;
+    private final AtomicLong slot = new AtomicLong();
+
+    @Setup
+    public void setUp(ShareItDataset dataset) {
+        bookingService = dataset.bean(BookingService.class);
+        slotBase = LocalDateTime.now().plusYears(2); // после всех сгенерированных Booking - без пересечений
+    }
+
+    @Benchmark
+    public BookingResponseDto create(ShareItDataset dataset) {
+        int item = dataset.randomAvailableItem();
+        long bookerId = dataset.userIds[0] == dataset.itemOwnerIds[item] ? dataset.userIds[1] : dataset.userIds[0];
+        LocalDateTime start = slotBase.plusHours(slot.getAndIncrement());
+        return bookingService.create(new BookingRequestDto(dataset.itemIds[item], start, start.plusMinutes(30)),
+                bookerId);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> getAllByBooker(ShareItDataset dataset, BookingStateParam param) {
+        return bookingService.getAllByBooker(0, 20, param.state, dataset.randomUserId());
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> getAllByOwner(ShareItDataset dataset, BookingStateParam param) {
+        return bookingService.getAllByOwner(0, 20, param.state, dataset.randomUserId());
+    }
+
+    @State(Scope.Benchmark)
+    public static class BookingStateParam { // отдельное состояние, чтобы create не повторялся для каждого state
+        @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+        public String state;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    private ItemService itemService;
+
+    @Setup
+    public void setUp(ShareItDataset dataset) {
+        itemService = dataset.bean(ItemService.class);
+    }
+
+    @Benchmark
+    public ItemResponseDto getByIdForOwner(ShareItDataset dataset) { // с last/next Booking и комментариями
+        int item = dataset.randomItem();
+        return itemService.getById(dataset.itemIds[item], dataset.itemOwnerIds[item]);
+    }
+
+    @Benchmark
+    public ItemResponseDto getByIdForOtherUser(ShareItDataset dataset) {
+        return itemService.getById(dataset.itemIds[dataset.randomItem()], dataset.randomUserId());
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> getAllByOwner(ShareItDataset dataset) {
+        return itemService.getAllByOwner(0, 20, dataset.itemOwnerIds[dataset.randomItem()]);
+    }
+
+    @Benchmark
+    public List<ItemDto> search(ShareItDataset dataset) {
+        String word = ShareItDataset.WORDS[ThreadLocalRandom.current().nextInt(ShareItDataset.WORDS.length)];
+        return itemService.search(0, 20, word.substring(0, 4), dataset.randomUserId());
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Статические мапперы без Spring и БД: стоимость преобразования списка из size сущностей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "1000"})
+    public int size;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "Owner", "owner@bench.ru");
+        User booker = new User(2L, "Booker", "booker@bench.ru");
+        LocalDateTime now = LocalDateTime.now();
+        bookings = new ArrayList<>();
+        items = new ArrayList<>();
+        comments = new ArrayList<>();
+        for (long i = 0; i < size; i++) {
+            Item item = new Item(i, "Вещь " + i, "Описание вещи " + i, true, owner, null, null);
+            items.add(item);
+            bookings.add(new Booking(i, now.plusDays(i), now.plusDays(i + 1), item, booker, StatusType.APPROVED,
+                    owner.getId(), null));
+            comments.add(Comment.builder().id(i).text("Комментарий " + i).item(item).author(booker).build());
+        }
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookingToResponse() {
+        List<BookingResponseDto> result = new ArrayList<>(size);
+        for (Booking booking : bookings) {
+            result.add(BookingMapper.bookingToResponse(booking));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemDto> itemToDto() {
+        return ItemMapper.listItemsToListDto(items);
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> itemToResponse() {
+        return ItemMapper.listItemsToListResponseDto(items);
+    }
+
+    @Benchmark
+    public List<CommentResponseDto> commentToResponse() {
+        return CommentMapper.listCommentsToListResponse(comments);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Первая страница бронирований Owner: прежний запрос через items (B.item.owner.id) против bookings.owner_id
+ * с индексом (owner_id, start_date DESC, id DESC). Разница заметна у Owner с большим числом вещей, например
+ * -Djmh.args="OwnerBookingBenchmark -p users=4 -p itemsPerUser=10000 -p bookingsPerItem=5".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnerBookingBenchmark {
+
+    private static final String ITEMS_JOIN = "SELECT B FROM Booking B JOIN FETCH B.item I JOIN FETCH B.booker "
+            + "WHERE I.owner.id = :owner";
+    private static final String OWNER_ID = "SELECT B FROM Booking B JOIN FETCH B.item JOIN FETCH B.booker "
+            + "WHERE B.ownerId = :owner";
+    private static final String WAITING = " AND B.status = :status";
+
+    @Param({"ALL", "WAITING"})
+    public String state;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setUp(ShareItDataset dataset) {
+        entityManagerFactory = dataset.bean(EntityManagerFactory.class);
+    }
+
+    @Benchmark
+    public List<Booking> itemsJoin(ShareItDataset dataset) {
+        return firstPage(ITEMS_JOIN, " ORDER BY B.start DESC", dataset.randomUserId());
+    }
+
+    @Benchmark
+    public List<Booking> ownerId(ShareItDataset dataset) {
+        return firstPage(OWNER_ID, " ORDER BY B.ownerId, B.start DESC", dataset.randomUserId()); // как в
+        // BookingRepository.get*ForOwner
+    }
+
+    private List<Booking> firstPage(String query, String order, long ownerId) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            boolean waiting = "WAITING".equals(state);
+            TypedQuery<Booking> typedQuery = entityManager.createQuery(query + (waiting ? WAITING : "") + order,
+                            Booking.class)
+                    .setParameter("owner", ownerId)
+                    .setMaxResults(20);
+            if (waiting) {
+                typedQuery.setParameter("status", StatusType.WAITING);
+            }
+            return typedQuery.getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
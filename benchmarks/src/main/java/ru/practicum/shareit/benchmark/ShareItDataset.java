@@ -0,0 +1,146 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Поднимает контекст shareit-server на встроенной H2 (профиль ci) и заполняет её синтетическими данными.
+ * Размер набора задаётся параметрами JMH, например -p users=1000 -p bookingsPerItem=50.
+ */
+@State(Scope.Benchmark)
+public class ShareItDataset {
+
+    static final String[] WORDS = {"дрель", "отвертка", "пила", "молоток", "лестница", "палатка", "велосипед",
+        "проектор", "шуруповерт", "рюкзак"};
+
+    @Param("200")
+    public int users;
+    @Param("5")
+    public int itemsPerUser;
+    @Param("20")
+    public int bookingsPerItem;
+    @Param("3")
+    public int commentsPerItem;
+
+    ConfigurableApplicationContext context;
+    long[] userIds;
+    long[] itemIds;
+    long[] itemOwnerIds;
+    int[] availableItems; // индексы в itemIds
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .properties("spring.main.banner-mode=off", "logging.level.root=warn",
+                        "spring.datasource.url=jdbc:h2:mem:shareit-benchmark;DB_CLOSE_DELAY=-1")
+                .run();
+        seed(new Random(42));
+        context.getBeansOfType(InMemoryItemSearchEngine.class).values().forEach(InMemoryItemSearchEngine::warmUp);
+        context.getBeansOfType(BookingTimeline.class).values().forEach(BookingTimeline::warmUp); // данные мимо сервисов
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed(Random random) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        List<User> userList = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            userList.add(User.builder().name("User " + u).email("user" + u + "@bench.ru").build());
+        }
+        userList = userRepository.saveAll(userList);
+
+        List<Item> itemList = new ArrayList<>();
+        for (User owner : userList) {
+            for (int i = 0; i < itemsPerUser; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                itemList.add(Item.builder().name(word + " " + i).description("Отличная " + word + " для аренды")
+                        .available(random.nextInt(10) > 0).owner(owner).build());
+            }
+        }
+        itemList = itemRepository.saveAll(itemList);
+
+        LocalDateTime from = LocalDateTime.now().minusYears(1);
+        Duration step = Duration.ofDays(730).dividedBy(Math.max(bookingsPerItem, 1)); // до now + 1 год
+        StatusType[] statuses = {StatusType.APPROVED, StatusType.APPROVED, StatusType.WAITING, StatusType.REJECTED};
+        List<Booking> bookingList = new ArrayList<>();
+        List<Comment> commentList = new ArrayList<>();
+        for (Item item : itemList) {
+            for (int b = 0; b < bookingsPerItem; b++) {
+                LocalDateTime start = from.plus(step.multipliedBy(b));
+                bookingList.add(Booking.builder().start(start).end(start.plus(step.dividedBy(2))).item(item)
+                        .booker(anotherUser(userList, item.getOwner(), random)).ownerId(item.getOwner().getId())
+                        .status(statuses[random.nextInt(statuses.length)]).build());
+            }
+            for (int c = 0; c < commentsPerItem; c++) {
+                commentList.add(Comment.builder().text("Комментарий " + c).item(item)
+                        .author(anotherUser(userList, item.getOwner(), random)).build());
+            }
+        }
+        bookingRepository.saveAll(bookingList);
+        commentRepository.saveAll(commentList);
+
+        userIds = userList.stream().mapToLong(User::getId).toArray();
+        itemIds = itemList.stream().mapToLong(Item::getId).toArray();
+        itemOwnerIds = itemList.stream().mapToLong(item -> item.getOwner().getId()).toArray();
+        List<Item> items = itemList;
+        availableItems = IntStream.range(0, items.size()).filter(i -> items.get(i).getAvailable()).toArray();
+    }
+
+    private static User anotherUser(List<User> userList, User owner, Random random) {
+        User user = userList.get(random.nextInt(userList.size()));
+        return user.getId().equals(owner.getId()) ? userList.get((userList.indexOf(user) + 1) % userList.size())
+                : user;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    int randomItem() {
+        return ThreadLocalRandom.current().nextInt(itemIds.length);
+    }
+
+    int randomAvailableItem() {
+        return availableItems[ThreadLocalRandom.current().nextInt(availableItems.length)];
+    }
+
+    long randomUserId() {
+        return userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+}
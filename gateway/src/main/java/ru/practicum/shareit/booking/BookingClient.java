@@ -1,46 +1,42 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransportFactory transportFactory, MeterRegistry meterRegistry) {
+        super(transportFactory.create(API_PREFIX), meterRegistry);
     }
 
-    public ResponseEntity<Object> bookingCreate(BookingRequestDto bookingRequestDto, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> bookingCreate(BookingRequestDto bookingRequestDto, Long userId) {
         return post("", userId, bookingRequestDto);
     }
 
-    public ResponseEntity<Object> confirm(long bookingId, boolean approved, long userOwnerId) {
+    public CompletableFuture<ResponseEntity<Object>> confirm(long bookingId, boolean approved, long userOwnerId) {
         return patch("/" + bookingId + "?approved=" + approved, userOwnerId);
     }
 
-    public ResponseEntity<Object> getById(long bookingId, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByBooker(String stateParam, int from, int size, long bookerId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllByBooker(String stateParam, int from, int size, long bookerId) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatusException("Неподдерживаемый параметр BookingState"));
         Map<String, Object> parameters = Map.of(
@@ -51,7 +47,7 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", bookerId, parameters);
     }
 
-    public ResponseEntity<Object> getAllByOwner(String stateParam, int from, int size, long ownerId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllByOwner(String stateParam, int from, int size, long ownerId) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStatusException("Неподдерживаемый параметр BookingState"));
         Map<String, Object> parameters = Map.of(
@@ -62,4 +58,33 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
     }
 
+    public CompletableFuture<ResponseEntity<Object>> getPageByBooker(String stateParam, String cursor, int size,
+            long bookerId) {
+        return get("/cursor" + pageQuery(cursor), bookerId, pageParameters(stateParam, cursor, size));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getPageByOwner(String stateParam, String cursor, int size,
+            long ownerId) {
+        return get("/owner/cursor" + pageQuery(cursor), ownerId, pageParameters(stateParam, cursor, size));
+    }
+
+    private static String pageQuery(String cursor) {
+        return cursor == null ? "?state={state}&size={size}" : "?state={state}&size={size}&cursor={cursor}";
+    }
+
+    private static Map<String, Object> pageParameters(String stateParam, String cursor, int size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new UnsupportedStatusException("Неподдерживаемый параметр BookingState"));
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
+
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> exportByOwner(long ownerId) {
+        return stream("/owner/export", ownerId);
+    }
 }
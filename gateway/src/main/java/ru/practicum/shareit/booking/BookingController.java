@@ -6,11 +6,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -18,17 +21,18 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final String CURSOR_PATTERN = "[A-Za-z0-9_-]{1,200}"; // base64url из nextCursor
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> bookingCreate(@Valid @RequestBody BookingRequestDto bookingRequestDto,
+    public CompletableFuture<ResponseEntity<Object>> bookingCreate(@Valid @RequestBody BookingRequestDto bookingRequestDto,
             @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId) {
         log.info("Получен POST запрос по эндпоинту /bookings на добавление Bookings {}.", bookingRequestDto);
         return bookingClient.bookingCreate(bookingRequestDto, userId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> confirm(@PathVariable("bookingId") @Positive long bookingId,
+    public CompletableFuture<ResponseEntity<Object>> confirm(@PathVariable("bookingId") @Positive long bookingId,
             @RequestParam(name = "approved") boolean approved,
             @RequestHeader("X-Sharer-User-Id") @Positive long userOwnerId) {
         log.info(
@@ -39,7 +43,7 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(@PathVariable("bookingId") @Positive long bookingId,
+    public CompletableFuture<ResponseEntity<Object>> getById(@PathVariable("bookingId") @Positive long bookingId,
             @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId) { // либо автор брони, либо Owner
         log.info("Получен GET запрос по эндпоинту /bookings/{} от User c ID {} на получение Booking с ID {}.",
                 bookingId, userId, bookingId);
@@ -47,7 +51,7 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByBooker(@RequestParam(defaultValue = "ALL") String state,
+    public CompletableFuture<ResponseEntity<Object>> getAllByBooker(@RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0", required = false) @PositiveOrZero int from,
             @RequestParam(defaultValue = "10", required = false) @Positive int size,
             @RequestHeader("X-Sharer-User-Id") @Positive long bookerId) {
@@ -58,7 +62,7 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByOwner(@RequestParam(defaultValue = "ALL") String state,
+    public CompletableFuture<ResponseEntity<Object>> getAllByOwner(@RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0", required = false) @PositiveOrZero int from,
             @RequestParam(defaultValue = "10", required = false) @Positive int size,
             @RequestHeader("X-Sharer-User-Id") @Positive long ownerId) {
@@ -69,4 +73,32 @@ public class BookingController {
         return bookingClient.getAllByOwner(state, from, size, ownerId);
     }
 
+    @GetMapping("/cursor")
+    public CompletableFuture<ResponseEntity<Object>> getPageByBooker(@RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) @Pattern(regexp = CURSOR_PATTERN) String cursor,
+            @RequestParam(defaultValue = "10", required = false) @Positive int size,
+            @RequestHeader("X-Sharer-User-Id") @Positive long bookerId) {
+        log.info("Получен GET запрос по эндпоинту /bookings/cursor от User c ID {} на получение страницы Booking "
+                + "этого User после cursor {}.", bookerId, cursor);
+        return bookingClient.getPageByBooker(state, cursor, size, bookerId);
+    }
+
+    @GetMapping("/owner/cursor")
+    public CompletableFuture<ResponseEntity<Object>> getPageByOwner(@RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) @Pattern(regexp = CURSOR_PATTERN) String cursor,
+            @RequestParam(defaultValue = "10", required = false) @Positive int size,
+            @RequestHeader("X-Sharer-User-Id") @Positive long ownerId) {
+        log.info("Получен GET запрос по эндпоинту /bookings/owner/cursor от User c ID {} на получение страницы "
+                + "Booking всех Items для которых он Owner после cursor {}.", ownerId, cursor);
+        return bookingClient.getPageByOwner(state, cursor, size, ownerId);
+    }
+
+    @GetMapping("/owner/export")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> exportByOwner(
+            @RequestHeader("X-Sharer-User-Id") @Positive long ownerId) {
+        log.info("Получен GET запрос по эндпоинту /bookings/owner/export от User c ID {} на выгрузку всех Booking "
+                + "всех Items для которых он Owner.", ownerId);
+        return bookingClient.exportByOwner(ownerId);
+    }
+
 }
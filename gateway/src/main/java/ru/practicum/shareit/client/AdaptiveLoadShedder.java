@@ -0,0 +1,129 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Адаптивный лимит одновременных запросов gateway -> shareit-server (AIMD). Сглаженная задержка ответа
+ * (EWMA) сравнивается с target-latency: пока она ниже, лимит растёт примерно на 1 за каждые limit ответов,
+ * выше или при ошибке соединения/502/503/504 - уменьшается в backoff раз, не чаще одного раза за target-latency.
+ * Запрос сверх лимита сразу получает 503 с Retry-After, не дожидаясь, пока shareit-server перестанет отвечать.
+ * Включается shareit-server.client.load-shedding.enabled=true; метрики shareit.gateway.load-shedding.*.
+ */
+@Slf4j
+@Component
+public class AdaptiveLoadShedder {
+
+    private static final double EWMA_WEIGHT = 0.2; // вес нового замера задержки
+
+    private final boolean enabled;
+    private final long targetNanos;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits; // double, обновляется compareAndSet
+    private final AtomicLong latencyBits = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+    private final Counter rejected;
+
+    public AdaptiveLoadShedder(@Value("${shareit-server.client.load-shedding.enabled:false}") boolean enabled,
+            @Value("${shareit-server.client.load-shedding.target-latency:500ms}") Duration targetLatency,
+            @Value("${shareit-server.client.load-shedding.initial-limit:100}") int initialLimit,
+            @Value("${shareit-server.client.load-shedding.min-limit:10}") int minLimit,
+            @Value("${shareit-server.client.load-shedding.max-limit:1000}") int maxLimit,
+            @Value("${shareit-server.client.load-shedding.backoff:0.9}") double backoff,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.targetNanos = targetLatency.toNanos();
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoff = backoff;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+        this.rejected = Counter.builder("shareit.gateway.load-shedding.rejected")
+                .description("Запросы, отклонённые gateway из-за перегрузки shareit-server (503)")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.load-shedding.limit", this, AdaptiveLoadShedder::limit)
+                .description("Текущий лимит одновременных запросов к shareit-server")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.load-shedding.in-flight", inFlight, AtomicInteger::get)
+                .description("Запросы к shareit-server в обработке")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.load-shedding.latency", this, shedder -> get(shedder.latencyBits) / 1e9)
+                .description("Сглаженная задержка ответа shareit-server")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Включен адаптивный лимит запросов к shareit-server: целевая задержка {}, лимит {}..{}.",
+                    targetLatency, minLimit, maxLimit);
+        }
+    }
+
+    public boolean tryAcquire() { // false - запрос нужно отклонить
+        if (!enabled) {
+            return true;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) { // вызывается ровно один раз на успешный tryAcquire
+        if (!enabled) {
+            return;
+        }
+        int inFlightBefore = inFlight.getAndDecrement();
+        double latency = update(latencyBits, previous -> previous == 0 ? latencyNanos
+                : previous + EWMA_WEIGHT * (latencyNanos - previous));
+        long now = System.nanoTime();
+        if (failed || latency > targetNanos) {
+            long last = lastDecrease.get();
+            if (now - last >= targetNanos && lastDecrease.compareAndSet(last, now)) {
+                double limit = update(limitBits, current -> Math.max(minLimit, current * backoff));
+                log.debug("Задержка shareit-server {} мс - лимит запросов снижен до {}.", (long) (latency / 1e6),
+                        (int) limit);
+            }
+        } else if (inFlightBefore >= limit() / 2) { // рост только когда лимит действительно используется
+            update(limitBits, current -> Math.min(maxLimit, current + 1 / current));
+        }
+    }
+
+    public Duration retryAfter() {
+        return Duration.ofNanos(Math.max(targetNanos, (long) get(latencyBits)));
+    }
+
+    private double limit() {
+        return get(limitBits);
+    }
+
+    private static double get(AtomicLong bits) {
+        return Double.longBitsToDouble(bits.get());
+    }
+
+    private static double update(AtomicLong bits, DoubleUnaryOperator function) {
+        while (true) {
+            long current = bits.get();
+            double next = function.applyAsDouble(Double.longBitsToDouble(current));
+            if (bits.compareAndSet(current, Double.doubleToLongBits(next))) {
+                return next;
+            }
+        }
+    }
+}
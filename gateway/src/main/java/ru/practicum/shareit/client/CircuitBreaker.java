@@ -0,0 +1,142 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker группы запросов к shareit-server. CLOSED: исход последних window-size запросов хранится
+ * в кольцевом буфере, при доле неудачных (ошибка соединения, 502/503/504, ответ дольше slow-call) не ниже
+ * failure-rate, начиная с minimum-calls запросов, переходит в OPEN. OPEN: запросы отклоняются без обращения
+ * к shareit-server, через open-duration - HALF_OPEN. HALF_OPEN: пропускает half-open-calls пробных запросов,
+ * первая неудача возвращает в OPEN, все удачные - в CLOSED с пустым буфером. Методы synchronized: критические
+ * секции короткие и не содержат ввода-вывода.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String group;
+    private final double failureRate;
+    private final int minimumCalls;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] failed; // кольцевой буфер исходов в CLOSED
+    private int position;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesLeft; // HALF_OPEN: ещё не выданные пробные запросы
+    private int probesSucceeded;
+
+    public CircuitBreaker(String group, int windowSize, double failureRate, int minimumCalls, long slowCallNanos,
+            long openNanos, int halfOpenCalls) {
+        this.group = group;
+        this.failed = new boolean[windowSize];
+        this.failureRate = failureRate;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.slowCallNanos = slowCallNanos;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public synchronized boolean tryAcquire() { // false - запрос нужно отклонить
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                probesLeft = halfOpenCalls;
+                probesSucceeded = 0;
+                // fall through: первый пробный запрос
+            default:
+                if (probesLeft == 0) {
+                    return false;
+                }
+                probesLeft--;
+                return true;
+        }
+    }
+
+    public synchronized void cancel() { // разрешение получено, но запрос не отправлен (отказ bulkhead)
+        if (state == State.HALF_OPEN && probesLeft < halfOpenCalls) {
+            probesLeft++;
+        }
+    }
+
+    public synchronized void onResult(long latencyNanos, boolean error) {
+        boolean failure = error || latencyNanos >= slowCallNanos;
+        if (state == State.CLOSED) {
+            record(failure);
+            if (recorded >= minimumCalls && failures >= failureRate * recorded) {
+                open();
+            }
+        } else if (state == State.HALF_OPEN) {
+            if (failure) {
+                open();
+            } else if (++probesSucceeded >= halfOpenCalls) {
+                reset();
+                transition(State.CLOSED);
+            }
+        } // OPEN: ответ на запрос, отправленный до размыкания, - не учитывается
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized double failureRate() { // доля неудачных в буфере CLOSED, -1 - меньше minimum-calls
+        return recorded < minimumCalls ? -1 : (double) failures / recorded;
+    }
+
+    public synchronized int bufferedCalls() {
+        return recorded;
+    }
+
+    public synchronized long retryAfterNanos() { // сколько ещё OPEN отклоняет запросы
+        return state == State.OPEN ? Math.max(0, openNanos - (System.nanoTime() - openedAt)) : 0;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failed.length) {
+            if (failed[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        failed[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % failed.length;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        reset();
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void transition(State next) {
+        if (next == State.OPEN) {
+            log.warn("Circuit breaker {}: {} -> OPEN, запросы к shareit-server отклоняются {} мс.", group, state,
+                    openNanos / 1_000_000);
+        } else {
+            log.info("Circuit breaker {}: {} -> {}.", group, state, next);
+        }
+        state = next;
+    }
+}
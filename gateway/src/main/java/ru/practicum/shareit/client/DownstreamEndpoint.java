@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * /actuator/downstream - состояние circuit breaker и bulkhead каждой группы запросов к shareit-server,
+ * /actuator/downstream/{группа} - одной группы.
+ */
+@Component
+@Endpoint(id = "downstream")
+@RequiredArgsConstructor
+public class DownstreamEndpoint {
+
+    private final DownstreamGuards guards;
+
+    @ReadOperation
+    public Map<String, DownstreamGuard.Status> groups() {
+        return guards.status();
+    }
+
+    @ReadOperation
+    public DownstreamGuard.Status group(@Selector String group) {
+        return guards.status().get(group); // null - 404
+    }
+}
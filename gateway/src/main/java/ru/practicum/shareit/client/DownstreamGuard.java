@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.exception.RetryLaterException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead и circuit breaker одной группы запросов к shareit-server (одного клиента: /items, /bookings, ...).
+ * Bulkhead ограничивает число одновременных запросов группы, чтобы медленные /bookings/owner не заняли все
+ * соединения пула и потоки, нужные дешёвым /users/{id}. Отказ любого из них - 503 с Retry-After.
+ */
+@Slf4j
+public class DownstreamGuard {
+
+    private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String group;
+    private final Semaphore bulkhead; // null - bulkhead выключен
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final CircuitBreaker circuitBreaker; // null - circuit breaker выключен
+    private final Counter bulkheadRejected;
+    private final Counter circuitBreakerRejected;
+
+    public DownstreamGuard(String group, int maxConcurrent, Duration maxWait, CircuitBreaker circuitBreaker,
+            MeterRegistry meterRegistry) {
+        this.group = group;
+        this.bulkhead = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.circuitBreaker = circuitBreaker;
+        this.bulkheadRejected = Counter.builder("shareit.gateway.bulkhead.rejected")
+                .description("Запросы, отклонённые bulkhead группы (503)")
+                .tag("group", group)
+                .register(meterRegistry);
+        this.circuitBreakerRejected = Counter.builder("shareit.gateway.circuit-breaker.rejected")
+                .description("Запросы, отклонённые разомкнутым circuit breaker группы (503)")
+                .tag("group", group)
+                .register(meterRegistry);
+        if (bulkhead != null) {
+            Gauge.builder("shareit.gateway.bulkhead.in-flight", this, DownstreamGuard::inFlight)
+                    .description("Запросы группы к shareit-server в обработке")
+                    .tag("group", group)
+                    .register(meterRegistry);
+        }
+        if (circuitBreaker != null) {
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                Gauge.builder("shareit.gateway.circuit-breaker.state", circuitBreaker,
+                                breaker -> breaker.state() == state ? 1 : 0)
+                        .description("Текущее состояние circuit breaker группы: 1 - в этом состоянии")
+                        .tag("group", group)
+                        .tag("state", state.name())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    public void acquire() { // перед запросом; на каждый успешный вызов - ровно один release или cancel
+        if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+            circuitBreakerRejected.increment();
+            throw new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Сервер недоступен, повторите запрос позже.", Duration.ofNanos(circuitBreaker.retryAfterNanos()));
+        }
+        if (bulkhead != null && !tryAcquireBulkhead()) {
+            if (circuitBreaker != null) {
+                circuitBreaker.cancel();
+            }
+            bulkheadRejected.increment();
+            throw new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE, "Сервер перегружен, повторите запрос позже.",
+                    BULKHEAD_RETRY_AFTER);
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) { // запрос выполнен
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.onResult(latencyNanos, failed);
+        }
+    }
+
+    public void cancel() { // запрос так и не был отправлен
+        if (bulkhead != null) {
+            bulkhead.release();
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.cancel();
+        }
+    }
+
+    public Status status() {
+        return new Status(circuitBreaker == null ? null : circuitBreaker.state(),
+                circuitBreaker == null ? null : circuitBreaker.failureRate(),
+                circuitBreaker == null ? null : circuitBreaker.bufferedCalls(),
+                bulkhead == null ? null : inFlight(), bulkhead == null ? null : maxConcurrent);
+    }
+
+    private boolean tryAcquireBulkhead() {
+        if (maxWaitNanos == 0) {
+            return bulkhead.tryAcquire();
+        }
+        try {
+            return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.debug("Ожидание bulkhead {} прервано.", group);
+            return false;
+        }
+    }
+
+    private int inFlight() {
+        return maxConcurrent - bulkhead.availablePermits();
+    }
+
+    @Value
+    public static class Status { // для /actuator/downstream; null - механизм выключен
+        CircuitBreaker.State state;
+        Double failureRate;
+        Integer bufferedCalls;
+        Integer inFlight;
+        Integer maxConcurrent;
+    }
+}
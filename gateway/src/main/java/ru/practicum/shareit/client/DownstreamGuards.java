@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Создаёт DownstreamGuard для каждого клиента shareit-server; группа - API-префикс клиента без "/" (items,
+ * bookings, users, requests). Лимит bulkhead задаётся shareit-server.client.bulkhead.max-concurrent и может
+ * быть переопределён для группы: shareit-server.client.bulkhead.<группа>.max-concurrent. Параметры circuit
+ * breaker общие, состояние - своё у каждой группы. Состояние всех групп - /actuator/downstream.
+ */
+@Slf4j
+@Component
+public class DownstreamGuards {
+
+    private final Map<String, DownstreamGuard> guards = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final boolean bulkheadEnabled;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final boolean circuitBreakerEnabled;
+    private final int windowSize;
+    private final double failureRate;
+    private final int minimumCalls;
+    private final Duration slowCall;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+
+    public DownstreamGuards(Environment environment, MeterRegistry meterRegistry,
+            @Value("${shareit-server.client.bulkhead.enabled:true}") boolean bulkheadEnabled,
+            @Value("${shareit-server.client.bulkhead.max-concurrent:100}") int maxConcurrent,
+            @Value("${shareit-server.client.bulkhead.max-wait:0ms}") Duration maxWait,
+            @Value("${shareit-server.client.circuit-breaker.enabled:true}") boolean circuitBreakerEnabled,
+            @Value("${shareit-server.client.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${shareit-server.client.circuit-breaker.failure-rate:0.5}") double failureRate,
+            @Value("${shareit-server.client.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${shareit-server.client.circuit-breaker.slow-call:5s}") Duration slowCall,
+            @Value("${shareit-server.client.circuit-breaker.open-duration:10s}") Duration openDuration,
+            @Value("${shareit-server.client.circuit-breaker.half-open-calls:3}") int halfOpenCalls) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.bulkheadEnabled = bulkheadEnabled;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+        this.windowSize = windowSize;
+        this.failureRate = failureRate;
+        this.minimumCalls = minimumCalls;
+        this.slowCall = slowCall;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public DownstreamGuard forPrefix(String apiPrefix) {
+        return guards.computeIfAbsent(apiPrefix.replace("/", ""), this::create);
+    }
+
+    public Map<String, DownstreamGuard.Status> status() {
+        Map<String, DownstreamGuard.Status> status = new TreeMap<>();
+        guards.forEach((group, guard) -> status.put(group, guard.status()));
+        return Collections.unmodifiableMap(status);
+    }
+
+    private DownstreamGuard create(String group) {
+        int groupMaxConcurrent = bulkheadEnabled ? environment.getProperty(
+                "shareit-server.client.bulkhead." + group + ".max-concurrent", Integer.class, maxConcurrent) : 0;
+        CircuitBreaker circuitBreaker = circuitBreakerEnabled ? new CircuitBreaker(group, windowSize, failureRate,
+                minimumCalls, slowCall.toNanos(), openDuration.toNanos(), halfOpenCalls) : null;
+        log.info("Группа запросов к shareit-server {}: bulkhead {}, circuit breaker {}.", group,
+                groupMaxConcurrent > 0 ? groupMaxConcurrent : "выключен",
+                circuitBreaker != null ? "включен" : "выключен");
+        return new DownstreamGuard(group, groupMaxConcurrent, maxWait, circuitBreaker, meterRegistry);
+    }
+}
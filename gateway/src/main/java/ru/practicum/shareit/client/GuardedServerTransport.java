@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.RetryLaterException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker и bulkhead группы (DownstreamGuard) и адаптивный лимит (AdaptiveLoadShedder) на запросы,
+ * которые действительно уходят в shareit-server. Стоит под SingleFlightServerTransport: GET, получивший ответ
+ * уже выполняющегося запроса, не занимает разрешение и не попадает в статистику circuit breaker и задержек.
+ * Отказ - RetryLaterException (503 с Retry-After) сразу, без обращения к shareit-server.
+ */
+public class GuardedServerTransport implements ServerTransport {
+
+    private final ServerTransport delegate;
+    private final DownstreamGuard guard;
+    private final AdaptiveLoadShedder loadShedder;
+
+    public GuardedServerTransport(ServerTransport delegate, DownstreamGuard guard, AdaptiveLoadShedder loadShedder) {
+        this.delegate = delegate;
+        this.guard = guard;
+        this.loadShedder = loadShedder;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path,
+            @Nullable Map<String, Object> parameters, HttpHeaders headers, @Nullable Object body) {
+        return guarded(() -> delegate.exchange(method, path, parameters, headers, body));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers) {
+        return guarded(() -> delegate.stream(path, headers)); // задержка - до статуса и заголовков
+    }
+
+    private <R> CompletableFuture<ResponseEntity<R>> guarded(Supplier<CompletableFuture<ResponseEntity<R>>> request) {
+        guard.acquire(); // circuit breaker и bulkhead группы клиента, отказ - 503
+        if (!loadShedder.tryAcquire()) { // shareit-server не успевает - отказ сразу, без запроса к нему
+            guard.cancel();
+            throw new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE, "Сервер перегружен, повторите запрос позже.",
+                    loadShedder.retryAfter());
+        }
+        long started = System.nanoTime();
+        try {
+            return request.get().whenComplete((response, error) ->
+                    release(started, error != null || overloaded(response)));
+        } catch (RuntimeException e) { // blocking-транспорт: ошибка соединения бросается синхронно
+            release(started, true);
+            throw e;
+        }
+    }
+
+    private void release(long started, boolean failed) {
+        long latency = System.nanoTime() - started;
+        loadShedder.release(latency, failed);
+        guard.release(latency, failed);
+    }
+
+    private static boolean overloaded(ResponseEntity<?> response) { // 500 shareit-server - ошибка запроса
+        // (например, дубликат email), а не перегрузка
+        HttpStatus status = response.getStatusCode();
+        return status == HttpStatus.SERVICE_UNAVAILABLE || status == HttpStatus.GATEWAY_TIMEOUT
+                || status == HttpStatus.BAD_GATEWAY;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriBuilderFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующий режим на java.net.http.HttpClient: поток запроса gateway освобождается сразу после отправки,
+ * ответ (байты тела как есть) обрабатывается небольшим пулом потоков HttpClient.
+ */
+public class HttpClientServerTransport implements ServerTransport {
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final UriBuilderFactory uriBuilderFactory;
+    private final Duration readTimeout;
+
+    public HttpClientServerTransport(HttpClient client, ObjectMapper objectMapper,
+            UriBuilderFactory uriBuilderFactory, Duration readTimeout) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.uriBuilderFactory = uriBuilderFactory;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path,
+            @Nullable Map<String, Object> parameters, HttpHeaders headers, @Nullable Object body) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .method(method.name(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(write(body)));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> ServerResponses.of(HttpStatus.valueOf(response.statusCode()),
+                        contentType(response), response.headers().firstValue(HttpHeaders.ETAG).orElse(null),
+                        response.body()));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uriBuilderFactory.expand(path))
+                .timeout(readTimeout) // до получения заголовков ответа, чтение тела не ограничено
+                .GET();
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> ServerResponses.streaming(HttpStatus.valueOf(response.statusCode()),
+                        contentType(response), response.body(), response.body()));
+    }
+
+    @Nullable
+    private static MediaType contentType(HttpResponse<?> response) {
+        return response.headers().firstValue(HttpHeaders.CONTENT_TYPE).map(MediaType::parseMediaType).orElse(null);
+    }
+
+    private byte[] write(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать тело запроса.", e);
+        }
+    }
+}
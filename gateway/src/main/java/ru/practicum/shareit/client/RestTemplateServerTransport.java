@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Блокирующий режим: поток запроса gateway ждёт ответа shareit-server.
+ */
+public class RestTemplateServerTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+
+    public RestTemplateServerTransport(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path,
+            @Nullable Map<String, Object> parameters, HttpHeaders headers, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(ServerResponses.of(e.getStatusCode(),
+                    e.getResponseHeaders() != null ? e.getResponseHeaders().getContentType() : null,
+                    null, e.getResponseBodyAsByteArray()));
+        }
+        return CompletableFuture.completedFuture(ServerResponses.of(shareitServerResponse.getStatusCode(),
+                shareitServerResponse.getHeaders().getContentType(), shareitServerResponse.getHeaders().getETag(),
+                shareitServerResponse.getBody()));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers) {
+        URI uri = rest.getUriTemplateHandler().expand(path);
+        try { // запрос напрямую через фабрику RestTemplate: exchange() закрывает ответ до чтения тела
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().putAll(headers);
+            ClientHttpResponse response = request.execute();
+            return CompletableFuture.completedFuture(ServerResponses.streaming(response.getStatusCode(),
+                    response.getHeaders().getContentType(), response.getBody(), response));
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка GET запроса к " + uri + ": " + e.getMessage(), e);
+        }
+    }
+}
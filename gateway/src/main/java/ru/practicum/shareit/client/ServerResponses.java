@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.Closeable;
+import java.io.InputStream;
+
+/**
+ * Ответ shareit-server в виде байтов: gateway не разбирает JSON в LinkedHashMap и не сериализует его заново,
+ * а копирует статус, Content-Type, ETag и тело клиенту как есть.
+ */
+final class ServerResponses {
+
+    private ServerResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(HttpStatus status, @Nullable MediaType contentType, @Nullable String eTag,
+            @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        if (eTag != null) {
+            builder.eTag(eTag); // в том числе для 304 Not Modified
+        }
+        if (body == null || body.length == 0) {
+            return builder.build();
+        }
+        if (contentType != null) {
+            builder.contentType(contentType);
+        }
+        return builder.body(body);
+    }
+
+    static ResponseEntity<StreamingResponseBody> streaming(HttpStatus status, @Nullable MediaType contentType,
+            InputStream body, Closeable response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        if (contentType != null) {
+            builder.contentType(contentType);
+        }
+        return builder.body(out -> {
+            try (response; body) { // соединение освобождается и при обрыве со стороны клиента
+                body.transferTo(out);
+            }
+        });
+    }
+}
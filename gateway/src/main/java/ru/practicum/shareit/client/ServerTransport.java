@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface ServerTransport {
+
+    CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path,
+            @Nullable Map<String, Object> parameters, HttpHeaders headers, @Nullable Object body); // отправляет
+    // запрос в shareit-server; статус, Content-Type и тело ответа (в т.ч. 4xx/5xx) возвращаются без разбора JSON
+
+    CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers); // GET
+    // с потоковой передачей: статус и Content-Type известны сразу, тело копируется клиенту по мере получения
+    // от shareit-server, без буферизации целиком
+}
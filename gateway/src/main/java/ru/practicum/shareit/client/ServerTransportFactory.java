@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Создаёт ServerTransport для каждого клиента (ItemClient, BookingClient, ...). Пул соединений и потоков
+ * общий для всех клиентов. Режим выбирается shareit-server.client.mode: blocking (RestTemplate на пуле
+ * Apache HttpClient) или async (java.net.http.HttpClient, контроллеры отдают CompletableFuture).
+ * Запросы, уходящие в shareit-server, проходят circuit breaker и bulkhead группы клиента и адаптивный лимит
+ * (GuardedServerTransport). При shareit-server.client.single-flight.enabled=true одинаковые одновременные GET
+ * объединяются (SingleFlightServerTransport) до них: присоединившийся GET не занимает разрешений.
+ */
+@Slf4j
+@Component
+public class ServerTransportFactory implements DisposableBean {
+
+    private final String serverUrl;
+    private final String mode;
+    private final Duration readTimeout;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final ObjectMapper objectMapper;
+    private final boolean singleFlight;
+    private final MeterRegistry meterRegistry;
+    private final DownstreamGuards guards;
+    private final AdaptiveLoadShedder loadShedder;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight =
+            new ConcurrentHashMap<>();
+
+    private HttpComponentsClientHttpRequestFactory blockingRequestFactory;
+    private HttpClient asyncClient;
+    private ExecutorService asyncExecutor;
+
+    public ServerTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+            @Value("${shareit-server.client.mode:blocking}") String mode,
+            @Value("${shareit-server.client.max-connections:200}") int maxConnections,
+            @Value("${shareit-server.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.client.read-timeout:30s}") Duration readTimeout,
+            @Value("${shareit-server.client.async-threads:4}") int asyncThreads,
+            @Value("${shareit-server.client.single-flight.enabled:true}") boolean singleFlight,
+            RestTemplateBuilder restTemplateBuilder, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            DownstreamGuards guards, AdaptiveLoadShedder loadShedder) {
+        this.serverUrl = serverUrl;
+        this.mode = mode;
+        this.readTimeout = readTimeout;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.objectMapper = objectMapper;
+        this.singleFlight = singleFlight;
+        this.meterRegistry = meterRegistry;
+        this.guards = guards;
+        this.loadShedder = loadShedder;
+
+        if ("async".equals(mode)) {
+            asyncExecutor = Executors.newFixedThreadPool(asyncThreads);
+            asyncClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(connectTimeout)
+                    .executor(asyncExecutor)
+                    .build();
+        } else {
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(maxConnections);
+            connectionManager.setDefaultMaxPerRoute(maxConnections); // все запросы идут на один shareit-server
+            CloseableHttpClient httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .build();
+            blockingRequestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+            blockingRequestFactory.setConnectTimeout((int) connectTimeout.toMillis());
+            blockingRequestFactory.setConnectionRequestTimeout((int) connectTimeout.toMillis());
+            blockingRequestFactory.setReadTimeout((int) readTimeout.toMillis());
+        }
+        log.info("Режим клиента shareit-server: {}, объединение одинаковых GET: {}.", mode, singleFlight);
+    }
+
+    public ServerTransport create(String apiPrefix) {
+        ServerTransport transport = new GuardedServerTransport(createTransport(apiPrefix),
+                guards.forPrefix(apiPrefix), loadShedder);
+        return singleFlight ? new SingleFlightServerTransport(transport, apiPrefix, inFlight, meterRegistry)
+                : transport;
+    }
+
+    private ServerTransport createTransport(String apiPrefix) {
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
+        if ("async".equals(mode)) {
+            return new HttpClientServerTransport(asyncClient, objectMapper, uriBuilderFactory, readTimeout);
+        }
+        return new RestTemplateServerTransport(restTemplateBuilder
+                .uriTemplateHandler(uriBuilderFactory)
+                .requestFactory(() -> blockingRequestFactory)
+                .build());
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (blockingRequestFactory != null) {
+            blockingRequestFactory.destroy();
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+    }
+}
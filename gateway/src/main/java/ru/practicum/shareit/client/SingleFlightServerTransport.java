@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Объединение одинаковых одновременных GET (single-flight): пока запрос к shareit-server с тем же путём,
+ * параметрами, X-Sharer-User-Id и If-None-Match выполняется, новые запросы не уходят в shareit-server,
+ * а получают тот же ответ. Ответ - неизменяемые байты, каждый клиент gateway получает свою копию
+ * ResponseEntity. Завершённый изменяющий запрос (POST, PATCH, DELETE, ...) через любой клиент закрывает
+ * присоединение ко всем выполняющимся GET: GET после записи не получит ответ, прочитанный до неё.
+ * Метрики: shareit.gateway.single-flight.requests с тегом result=leader|coalesced и доля объединённых
+ * запросов shareit.gateway.single-flight.ratio, обе с тегом prefix.
+ */
+public class SingleFlightServerTransport implements ServerTransport {
+
+    static final String REQUESTS_METRIC = "shareit.gateway.single-flight.requests";
+    static final String RATIO_METRIC = "shareit.gateway.single-flight.ratio";
+
+    private final ServerTransport delegate;
+    private final String apiPrefix;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight; // общая для
+    // всех клиентов фабрики
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    public SingleFlightServerTransport(ServerTransport delegate, String apiPrefix,
+            ConcurrentMap<String, CompletableFuture<ResponseEntity<byte[]>>> inFlight, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.apiPrefix = apiPrefix;
+        this.inFlight = inFlight;
+        this.leaders = counter("leader", meterRegistry);
+        this.coalesced = counter("coalesced", meterRegistry);
+        Gauge.builder(RATIO_METRIC, this, SingleFlightServerTransport::ratio)
+                .description("Доля GET, получивших ответ уже выполняющегося запроса к shareit-server")
+                .tag("prefix", apiPrefix)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, String path,
+            @Nullable Map<String, Object> parameters, HttpHeaders headers, @Nullable Object body) {
+        if (method != HttpMethod.GET) {
+            return delegate.exchange(method, path, parameters, headers, body)
+                    .whenComplete((response, error) -> inFlight.clear());
+        }
+        String key = key(path, parameters, headers);
+        CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy(); // отмена у одного клиента не затрагивает остальных
+        }
+        leaders.increment();
+        try {
+            delegate.exchange(method, path, parameters, headers, body).whenComplete((response, error) -> {
+                inFlight.remove(key, call);
+                if (error != null) {
+                    call.completeExceptionally(error);
+                } else {
+                    call.complete(response);
+                }
+            });
+        } catch (RuntimeException e) { // blocking-транспорт: ошибка соединения бросается синхронно
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        return call.copy();
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> stream(String path, HttpHeaders headers) {
+        return delegate.stream(path, headers); // тело читается из соединения один раз - не объединяется
+    }
+
+    private String key(String path, @Nullable Map<String, Object> parameters, HttpHeaders headers) {
+        return apiPrefix + path
+                + (parameters != null ? new TreeMap<>(parameters).toString() : "")
+                + '|' + headers.getFirst("X-Sharer-User-Id")
+                + '|' + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+    }
+
+    private double ratio() {
+        double total = leaders.count() + coalesced.count();
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+
+    private Counter counter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("GET к shareit-server: leader - отправлен, coalesced - получил ответ чужого запроса")
+                .tag("prefix", apiPrefix)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Разобранное тело POST /items/batch: строки, которые уходят в shareit-server, и строки, отклонённые ещё в gateway
+ * (значение не того типа) - с номером строки в запросе.
+ */
+@Getter
+public class ItemBatch {
+
+    private final List<ItemDto> items = new ArrayList<>();
+    private final List<Integer> rowIndexes = new ArrayList<>(); // номер строки запроса для каждого items
+    private final Map<Integer, String> errors = new TreeMap<>();
+
+    void add(ItemDto itemDto) {
+        rowIndexes.add(size());
+        items.add(itemDto);
+    }
+
+    void reject(String error) {
+        errors.put(size(), error);
+    }
+
+    int size() {
+        return items.size() + errors.size();
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Читает тело POST /items/batch: JSON-массив или NDJSON (по объекту на строку) - строки читаются потоком,
+ * без промежуточной копии всего тела. Строки не валидируются: ошибки по строкам возвращает сервер, не прерывая
+ * импорт остальных. Строка со значением не того типа отклоняется здесь же и добавляется к ошибкам ответа сервера.
+ * Некорректный JSON или превышение shareit.items.batch.max-size отклоняют весь запрос.
+ */
+@Component
+public class ItemBatchReader {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader rowReader;
+    private final int maxSize;
+
+    public ItemBatchReader(ObjectMapper objectMapper, @Value("${shareit.items.batch.max-size:1000}") int maxSize) {
+        this.objectMapper = objectMapper;
+        this.rowReader = objectMapper.readerFor(JsonNode.class);
+        this.maxSize = maxSize;
+    }
+
+    public ItemBatch read(InputStream body) {
+        ItemBatch batch = new ItemBatch();
+        try (MappingIterator<JsonNode> rows = rowReader.readValues(body)) { // корневой массив разворачивается
+            while (rows.hasNextValue()) {
+                if (batch.size() == maxSize) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Не больше " + maxSize + " Item за один запрос.");
+                }
+                JsonNode row = rows.nextValue(); // пустую строку (null) отклонит сервер
+                if (row.isNull()) {
+                    batch.add(null);
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.treeToValue(row, ItemDto.class));
+                } catch (JsonProcessingException e) { // JSON корректен - отклоняется только строка
+                    batch.reject(rowError(e));
+                }
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Некорректная строка " + batch.size() + " в запросе.", e);
+        }
+        return batch;
+    }
+
+    /**
+     * Добавляет отклонённые в gateway строки к errors ответа сервера, номера строк сервера переводятся в номера
+     * строк исходного запроса.
+     */
+    public ResponseEntity<Object> addRowErrors(ItemBatch batch, ResponseEntity<Object> response) {
+        if (batch.getErrors().isEmpty() || !response.getStatusCode().is2xxSuccessful()
+                || !(response.getBody() instanceof byte[])) {
+            return response;
+        }
+        try {
+            ObjectNode result = (ObjectNode) objectMapper.readTree((byte[]) response.getBody());
+            List<ObjectNode> errors = new ArrayList<>();
+            for (JsonNode serverError : result.path("errors")) {
+                ObjectNode error = serverError.deepCopy();
+                error.put("index", batch.getRowIndexes().get(serverError.path("index").asInt()));
+                errors.add(error);
+            }
+            batch.getErrors().forEach((index, message) ->
+                    errors.add(objectMapper.createObjectNode().put("index", index).put("error", message)));
+            errors.sort(Comparator.comparingInt(error -> error.get("index").asInt()));
+            result.putArray("errors").addAll(errors);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            headers.remove(HttpHeaders.CONTENT_LENGTH); // тело изменилось
+            return ResponseEntity.status(response.getStatusCode()).headers(headers)
+                    .body(objectMapper.writeValueAsBytes(result));
+        } catch (IOException | ClassCastException e) {
+            throw new IllegalStateException("Некорректный ответ shareit-server на POST /items/batch.", e);
+        }
+    }
+
+    private static String rowError(JsonProcessingException e) {
+        if (e instanceof JsonMappingException && !((JsonMappingException) e).getPath().isEmpty()) {
+            List<JsonMappingException.Reference> path = ((JsonMappingException) e).getPath();
+            return "Некорректное значение " + path.get(path.size() - 1).getFieldName() + ".";
+        }
+        return "Строка не является Item.";
+    }
+}
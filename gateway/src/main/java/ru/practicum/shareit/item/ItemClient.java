@@ -1,17 +1,18 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,24 +20,23 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerTransportFactory transportFactory, MeterRegistry meterRegistry) {
+        super(transportFactory.create(API_PREFIX), meterRegistry);
     }
 
-    public ResponseEntity<Object> itemCreate(ItemDto itemDto, Long userOwnerId) {
+    public CompletableFuture<ResponseEntity<Object>> itemCreate(ItemDto itemDto, Long userOwnerId) {
         return post("", userOwnerId, itemDto);
     }
 
-    public ResponseEntity<Object> getById(Long id, Long userId) {
-        return get("/" + id, userId);
+    public CompletableFuture<ResponseEntity<Object>> itemCreateBatch(List<ItemDto> itemDtos, Long userOwnerId) {
+        return post("/batch", userOwnerId, itemDtos);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getById(Long id, Long userId, @Nullable String ifNoneMatch) {
+        return conditionalGet("/" + id, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getAllItemsByOwner(int from, int size, Long userOwnerId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllItemsByOwner(int from, int size, Long userOwnerId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -44,15 +44,15 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userOwnerId, parameters);
     }
 
-    public ResponseEntity<Object> deleteItem(Long id, Long userOwnerId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(Long id, Long userOwnerId) {
         return delete("/" + id, userOwnerId);
     }
 
-    public ResponseEntity<Object> updateItem(Long id, ItemDto itemDto, Long userOwnerId) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(Long id, ItemDto itemDto, Long userOwnerId) {
         return patch("/" + id, userOwnerId, itemDto);
     }
 
-    public ResponseEntity<Object> searchItem(int from, int size, String searchText, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> searchItem(int from, int size, String searchText, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "text", searchText,
                 "from", from,
@@ -62,7 +62,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long itemId, Long userId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(long itemId, Long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +13,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 
 @Slf4j
@@ -21,25 +25,37 @@ import javax.validation.constraints.PositiveOrZero;
 public class ItemController {
 
     private final ItemClient itemClient;
+    private final ItemBatchReader itemBatchReader;
 
     @PostMapping
-    public ResponseEntity<Object> itemCreate(@Valid @RequestBody ItemDto itemDto,
+    public CompletableFuture<ResponseEntity<Object>> itemCreate(@Valid @RequestBody ItemDto itemDto,
             @RequestHeader(value = "X-Sharer-User-Id") Long userOwnerId) {
         log.info("Получен POST запрос по эндпоинту /items от User(Owner) c ID {} на добавление Item {}.", userOwnerId,
                 itemDto);
         return itemClient.itemCreate(itemDto, userOwnerId);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public CompletableFuture<ResponseEntity<Object>> itemCreateBatch(InputStream body,
+            @RequestHeader(value = "X-Sharer-User-Id") Long userOwnerId) {
+        ItemBatch batch = itemBatchReader.read(body);
+        log.info("Получен POST запрос по эндпоинту /items/batch от User(Owner) c ID {} на добавление {} Item.",
+                userOwnerId, batch.size());
+        return itemClient.itemCreateBatch(batch.getItems(), userOwnerId)
+                .thenApply(response -> itemBatchReader.addRowErrors(batch, response));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable @Positive Long id,
-            @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@PathVariable @Positive Long id,
+            @RequestHeader(value = "X-Sharer-User-Id") Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен GET запрос по эндпоинту /items/{} от User c ID {} на получение Item с ID {}.", id, userId,
                 id);
-        return itemClient.getById(id, userId);
+        return itemClient.getById(id, userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByOwner(
+    public CompletableFuture<ResponseEntity<Object>> getAllItemsByOwner(
             @RequestParam(defaultValue = "0", required = false) @PositiveOrZero int from,
             @RequestParam(defaultValue = "10", required = false) @Positive int size,
             @RequestHeader(value = "X-Sharer-User-Id") Long userOwnerId) {
@@ -49,7 +65,7 @@ public class ItemController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteItem(@PathVariable @Positive Long id,
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(@PathVariable @Positive Long id,
             @RequestHeader(value = "X-Sharer-User-Id") Long userOwnerId) {
         log.info("Получен DELETE запрос по эндпоинту /items/{} от User(Owner) c ID {} на удаление Item с ID {}.", id,
                 userOwnerId, id);
@@ -57,7 +73,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@PathVariable @Positive Long id, @RequestBody ItemDto itemDto,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@PathVariable @Positive Long id, @RequestBody ItemDto itemDto,
             @RequestHeader(value = "X-Sharer-User-Id") Long userOwnerId) {
         log.info(
                 "Получен PATCH запрос по эндпоинту /items/{} от User(Owner) c ID {} на обновление данных Item с ID {}.",
@@ -66,7 +82,7 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(
+    public CompletableFuture<ResponseEntity<Object>> searchItem(
             @RequestParam(defaultValue = "0", required = false) @PositiveOrZero int from,
             @RequestParam(defaultValue = "10", required = false) @Positive int size,
             @RequestParam(name = "text") String searchText,
@@ -78,7 +94,7 @@ public class ItemController {
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable("itemId") @Positive long itemId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(@PathVariable("itemId") @Positive long itemId,
             @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
             @Valid @RequestBody CommentDto commentDto) {
         log.info("Получен POST запрос по эндпоинту /items/{}/comment от User c ID {} на создание Comment {}.", itemId,
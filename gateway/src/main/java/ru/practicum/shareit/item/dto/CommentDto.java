@@ -4,11 +4,13 @@ import lombok.Builder;
 import lombok.Getter;
 
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
 
 @Getter
 @Builder
 public class CommentDto {
     private Long id;
     @NotBlank
+    @Size(max = 512)
     private String text;
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket в памяти без блокировок: состояние ключа - одно число, момент, когда корзина снова станет полной
+ * (GCRA, theoretical arrival time), и обновляется compareAndSet. Полные корзины ничем не отличаются
+ * от отсутствующих и периодически удаляются - память занимают только ключи, активные в последние
+ * capacity / refillPerSecond секунд.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final int CLEANUP_EVERY = 4096; // вызовов tryAcquire между очистками
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+
+    @Override
+    public long tryAcquire(String key, RateLimit limit) {
+        long now = System.nanoTime();
+        if (calls.incrementAndGet() % CLEANUP_EVERY == 0) {
+            cleanUp(now);
+        }
+        long interval = limit.emissionIntervalNanos();
+        long burst = interval * limit.getCapacity(); // на сколько tat может опережать now
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            if (next - now > burst) {
+                return next - now - burst;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private void cleanUp(long now) { // гонка с tryAcquire по удаляемому ключу допускает лишний запрос,
+        // но не блокирует пропуск
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Value;
+
+/**
+ * Token bucket: до capacity запросов подряд, затем refillPerSecond запросов в секунду.
+ */
+@Value
+public class RateLimit {
+    long capacity;
+    double refillPerSecond;
+
+    public long emissionIntervalNanos() { // время появления одного токена
+        return (long) (1_000_000_000L / refillPerSecond);
+    }
+
+    public static RateLimit parse(String value) { // "capacity:refillPerSecond", например "20:5"
+        String[] parts = value.trim().split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Лимит задаётся как capacity:refillPerSecond, получено: " + value);
+        }
+        RateLimit limit = new RateLimit(Long.parseLong(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        if (limit.capacity < 1 || limit.refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity и refillPerSecond должны быть положительными: " + value);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Лимит запросов gateway, включается shareit.gateway.rate-limit.enabled=true. Лимиты эндпоинтов задаются
+ * списком "МЕТОД /шаблон=capacity:refillPerSecond" через запятую, например
+ * shareit.gateway.rate-limit.endpoints=GET /items/search=20:5.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.gateway.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitStore rateLimitStore() {
+        return new InMemoryRateLimitStore();
+    }
+
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor(RateLimitStore rateLimitStore, MeterRegistry meterRegistry,
+            @Value("${shareit.gateway.rate-limit.default:100:50}") String defaultLimit,
+            @Value("${shareit.gateway.rate-limit.endpoints:}") List<String> endpoints) {
+        Map<String, RateLimit> endpointLimits = new HashMap<>();
+        for (String endpoint : endpoints) {
+            int separator = endpoint.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Ожидается МЕТОД /шаблон=capacity:refillPerSecond: " + endpoint);
+            }
+            endpointLimits.put(endpoint.substring(0, separator).trim(),
+                    RateLimit.parse(endpoint.substring(separator + 1)));
+        }
+        log.info("Включен лимит запросов gateway: по умолчанию {}, эндпоинты {}, хранилище {}.", defaultLimit,
+                endpointLimits, rateLimitStore.getClass().getSimpleName());
+        return new RateLimitInterceptor(rateLimitStore, RateLimit.parse(defaultLimit), endpointLimits, meterRegistry);
+    }
+
+    @Bean
+    public WebMvcConfigurer rateLimitInterceptorConfigurer(RateLimitInterceptor rateLimitInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(rateLimitInterceptor).excludePathPatterns("/actuator/**", "/error");
+            }
+        };
+    }
+}
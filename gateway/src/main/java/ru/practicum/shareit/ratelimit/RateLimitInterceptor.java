@@ -0,0 +1,68 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.RetryLaterException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Лимит запросов на пару (X-Sharer-User-Id, эндпоинт): эндпоинт - метод и шаблон пути контроллера
+ * ("GET /items/search"), без заголовка пользователя - адрес клиента. Для эндпоинтов из
+ * shareit.gateway.rate-limit.endpoints действует свой лимит, для остальных - shareit.gateway.rate-limit.default.
+ * Сверх лимита - 429 с Retry-After, в shareit-server запрос не уходит.
+ */
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    static final String REJECTED_METRIC = "shareit.gateway.rate-limit.rejected";
+
+    private final RateLimitStore store;
+    private final RateLimit defaultLimit;
+    private final Map<String, RateLimit> endpointLimits;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitInterceptor(RateLimitStore store, RateLimit defaultLimit, Map<String, RateLimit> endpointLimits,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.defaultLimit = defaultLimit;
+        this.endpointLimits = endpointLimits;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) { // async-dispatch уже учтённого запроса
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        String userId = request.getHeader("X-Sharer-User-Id");
+        String client = userId != null ? "user:" + userId : "addr:" + request.getRemoteAddr();
+
+        long waitNanos = store.tryAcquire(client + "|" + endpoint, endpointLimits.getOrDefault(endpoint,
+                defaultLimit));
+        if (waitNanos > 0) {
+            rejected(endpoint).increment();
+            log.debug("Превышен лимит запросов {} для {}.", endpoint, client);
+            throw new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, "Слишком много запросов, повторите позже.",
+                    Duration.ofNanos(waitNanos));
+        }
+        return true;
+    }
+
+    private Counter rejected(String endpoint) {
+        return Counter.builder(REJECTED_METRIC)
+                .description("Запросы, отклонённые лимитом gateway (429)")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+}
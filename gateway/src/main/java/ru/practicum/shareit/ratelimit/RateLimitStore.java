@@ -0,0 +1,11 @@
+package ru.practicum.shareit.ratelimit;
+
+/**
+ * Хранилище состояния token bucket. По умолчанию - память gateway (InMemoryRateLimitStore); для общего лимита
+ * на несколько экземпляров gateway достаточно объявить бин с этим интерфейсом поверх общего хранилища
+ * (например, Redis со скриптом той же логики) - InMemoryRateLimitStore тогда не создаётся.
+ */
+public interface RateLimitStore {
+
+    long tryAcquire(String key, RateLimit limit); // 0 - токен получен, иначе наносекунды до появления токена
+}
@@ -1,42 +1,37 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(ServerTransportFactory transportFactory, MeterRegistry meterRegistry) {
+        super(transportFactory.create(API_PREFIX), meterRegistry);
     }
 
-    public ResponseEntity<Object> create(ItemRequestDto itemRequestDto, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> create(ItemRequestDto itemRequestDto, Long userId) {
         return post("", userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllForRequestor(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllForRequestor(Long userId) {
         return get("/", userId);
     }
 
-    public ResponseEntity<Object> getAll(int from, int size, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getAll(int from, int size, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size);
@@ -44,8 +39,9 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getById(long requestId, Long userId,
+            @Nullable String ifNoneMatch) {
+        return conditionalGet("/" + requestId, userId, ifNoneMatch);
     }
 
 }
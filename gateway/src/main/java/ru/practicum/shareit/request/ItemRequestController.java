@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +11,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 
 @Slf4j
@@ -22,7 +24,7 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody ItemRequestDto itemRequestDto,
+    public CompletableFuture<ResponseEntity<Object>> create(@Valid @RequestBody ItemRequestDto itemRequestDto,
             @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId) {
         log.info("Получен POST запрос по эндпоинту /requests на добавление нового ItemRequest {} от User с ID {}.",
                 itemRequestDto, userId);
@@ -30,7 +32,7 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllForRequestor(
+    public CompletableFuture<ResponseEntity<Object>> getAllForRequestor(
             @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId) {
         log.info("Получен GET запрос по эндпоинту /requests на получение всех ItemRequest с данными об ответах "
                 + "на них для User с ID {}.", userId);
@@ -38,7 +40,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(
+    public CompletableFuture<ResponseEntity<Object>> getAll(
             @RequestParam(defaultValue = "0", required = false) @PositiveOrZero int from,
             @RequestParam(defaultValue = "20", required = false) @Positive int size,
             @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId) {
@@ -48,11 +50,12 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@PathVariable @Positive long requestId,
-            @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@PathVariable @Positive long requestId,
+            @RequestHeader(value = "X-Sharer-User-Id") @Positive Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Получен GET запрос по эндпоинту /requests/{} на получение ItemRequest c ID {} для User с ID {}.",
                 requestId, requestId, userId);
-        return itemRequestClient.getById(requestId, userId);
+        return itemRequestClient.getById(requestId, userId, ifNoneMatch);
     }
 
 }
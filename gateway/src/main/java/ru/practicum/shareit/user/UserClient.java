@@ -1,46 +1,41 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerTransportFactory transportFactory, MeterRegistry meterRegistry) {
+        super(transportFactory.create(API_PREFIX), meterRegistry);
     }
 
-    public ResponseEntity<Object> userCreate(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> userCreate(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getById(Long id) {
+    public CompletableFuture<ResponseEntity<Object>> getById(Long id) {
         return get("/" + id);
     }
 
-    public ResponseEntity<Object> geAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> geAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> deleteUser(Long id) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(Long id) {
         return delete("/" + id);
     }
 
-    public ResponseEntity<Object> updateUser(Long id, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(Long id, UserDto userDto) {
         return patch("/" + id, userDto);
     }
 
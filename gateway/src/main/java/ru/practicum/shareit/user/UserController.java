@@ -13,6 +13,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -24,38 +25,38 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> userCreate(@Valid @RequestBody UserDto userDto, BindingResult bindingResult) {
+    public CompletableFuture<ResponseEntity<Object>> userCreate(@Valid @RequestBody UserDto userDto, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
             List<String> errors = new ArrayList<>();
             for (FieldError error : bindingResult.getFieldErrors()) {
                 errors.add(error.getDefaultMessage());
             }
-            return ResponseEntity.badRequest().body(errors);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errors));
         }
         log.info("Получен POST запрос по эндпоинту /users на добавление User {}.", userDto);
         return userClient.userCreate(userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable @Positive Long id) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@PathVariable @Positive Long id) {
         log.info("Получен GET запрос по эндпоинту /users/{} на получение User с ID {}.", id, id);
         return userClient.getById(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> geAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> geAllUsers() {
         log.info("Получен GET запрос по эндпоинту /users на получение всех существующих Users.");
         return userClient.geAllUsers();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable @Positive Long id) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(@PathVariable @Positive Long id) {
         log.info("Получен DELETE запрос по эндпоинту /users/{} на удаление User с ID {}.", id, id);
         return userClient.deleteUser(id);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable @Positive Long id, @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@PathVariable @Positive Long id, @RequestBody UserDto userDto) {
         log.info("Получен PATCH запрос по эндпоинту /users/{} на одновление данных User с ID {}.", id, id);
         return userClient.updateUser(id, userDto);
     }
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+@DisplayName("Тесты класса AdaptiveLoadShedder")
+public class AdaptiveLoadShedderTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(10).toNanos();
+
+    private AdaptiveLoadShedder shedder(int initialLimit) { // целевая задержка 100 мс, лимит 2..8
+        return new AdaptiveLoadShedder(true, Duration.ofMillis(100), initialLimit, 2, 8, 0.5,
+                new SimpleMeterRegistry());
+    }
+
+    private static int acquireAll(AdaptiveLoadShedder shedder) {
+        int acquired = 0;
+        while (shedder.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    @Test
+    @DisplayName("Тест на отказ сверх лимита и освобождение разрешения")
+    void limitTest() {
+        AdaptiveLoadShedder shedder = shedder(4);
+
+        Assertions.assertEquals(4, acquireAll(shedder));
+        shedder.release(FAST, false);
+        Assertions.assertTrue(shedder.tryAcquire());
+        Assertions.assertFalse(shedder.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Тест на снижение лимита при медленных ответах не чаще раза за target-latency")
+    void decreaseTest() throws InterruptedException {
+        AdaptiveLoadShedder shedder = shedder(8);
+        Assertions.assertEquals(8, acquireAll(shedder));
+        Thread.sleep(150);
+
+        shedder.release(SLOW, false);
+        shedder.release(SLOW, false); // сразу после снижения - без повторного
+        Assertions.assertEquals(0, acquireAll(shedder)); // лимит 4, в обработке 6
+        for (int i = 0; i < 6; i++) {
+            shedder.release(FAST, false);
+        }
+        Assertions.assertEquals(4, acquireAll(shedder));
+    }
+
+    @Test
+    @DisplayName("Тест на рост лимита при быстрых ответах, пока лимит используется")
+    void increaseTest() {
+        AdaptiveLoadShedder shedder = shedder(2);
+
+        for (int i = 0; i < 30; i++) {
+            int acquired = acquireAll(shedder);
+            for (int j = 0; j < acquired; j++) {
+                shedder.release(FAST, false);
+            }
+        }
+
+        int acquired = acquireAll(shedder);
+        Assertions.assertTrue(acquired > 2 && acquired <= 8, "лимит " + acquired);
+    }
+
+    @Test
+    @DisplayName("Тест на выключенный лимит")
+    void disabledTest() {
+        AdaptiveLoadShedder shedder = new AdaptiveLoadShedder(false, Duration.ofMillis(10), 1, 1, 1, 0.5,
+                new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(shedder.tryAcquire());
+        }
+    }
+}
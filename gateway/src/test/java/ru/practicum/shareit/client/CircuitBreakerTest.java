@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+@DisplayName("Тесты класса CircuitBreaker")
+public class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW_CALL = Duration.ofSeconds(1).toNanos();
+
+    private CircuitBreaker breaker(Duration open, int halfOpenCalls) { // окно 4, OPEN при 50% неудач из 4+
+        return new CircuitBreaker("test", 4, 0.5, 4, SLOW_CALL, open.toNanos(), halfOpenCalls);
+    }
+
+    @Test
+    @DisplayName("Тест на переход CLOSED -> OPEN при доле неудач failure-rate")
+    void openAtFailureRateTest() {
+        CircuitBreaker breaker = breaker(Duration.ofHours(1), 1);
+
+        breaker.onResult(FAST, false);
+        breaker.onResult(FAST, true);
+        breaker.onResult(FAST, true); // 2 из 3 - меньше minimum-calls
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        Assertions.assertEquals(-1, breaker.failureRate());
+
+        breaker.onResult(FAST, false);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        Assertions.assertFalse(breaker.tryAcquire());
+        Assertions.assertTrue(breaker.retryAfterNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Тест на учёт только последних window-size запросов и медленных ответов как неудач")
+    void slidingWindowAndSlowCallTest() {
+        CircuitBreaker breaker = breaker(Duration.ofHours(1), 1);
+
+        breaker.onResult(FAST, true);
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(FAST, false); // неудача вытеснена из окна
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        Assertions.assertEquals(0.0, breaker.failureRate());
+
+        breaker.onResult(FAST, true);
+        Assertions.assertEquals(0.25, breaker.failureRate());
+        breaker.onResult(SLOW_CALL, false); // без ошибки, но дольше slow-call
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    @DisplayName("Тест на HALF_OPEN: неудачная проба - снова OPEN, все удачные - CLOSED")
+    void halfOpenTest() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 2);
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(FAST, true);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        Assertions.assertTrue(breaker.tryAcquire()); // open-duration истёк - пробы
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        Assertions.assertTrue(breaker.tryAcquire());
+        Assertions.assertFalse(breaker.tryAcquire()); // больше half-open-calls не пропускается
+        breaker.onResult(FAST, true);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        Assertions.assertTrue(breaker.tryAcquire());
+        Assertions.assertTrue(breaker.tryAcquire());
+        breaker.onResult(FAST, false);
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onResult(FAST, false);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        Assertions.assertEquals(0, breaker.bufferedCalls());
+    }
+
+    @Test
+    @DisplayName("Тест на возврат пробы HALF_OPEN через cancel")
+    void cancelTest() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 1);
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(FAST, true);
+        }
+
+        Assertions.assertTrue(breaker.tryAcquire());
+        Assertions.assertFalse(breaker.tryAcquire());
+        breaker.cancel(); // проба не отправлена (отказ bulkhead)
+        Assertions.assertTrue(breaker.tryAcquire());
+        breaker.cancel();
+        breaker.cancel(); // лишний cancel не добавляет проб
+        Assertions.assertTrue(breaker.tryAcquire());
+        Assertions.assertFalse(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.RetryLaterException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+@DisplayName("Тесты GuardedServerTransport под SingleFlightServerTransport")
+public class GuardedServerTransportTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ServerTransport server;
+    private CompletableFuture<ResponseEntity<byte[]>> response;
+    private DownstreamGuard guard;
+    private AdaptiveLoadShedder loadShedder;
+    private ServerTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        server = Mockito.mock(ServerTransport.class);
+        response = new CompletableFuture<>();
+        Mockito.when(server.exchange(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(response);
+        CircuitBreaker circuitBreaker = new CircuitBreaker("users", 10, 0.5, 2, Duration.ofSeconds(5).toNanos(),
+                Duration.ofHours(1).toNanos(), 1);
+        guard = new DownstreamGuard("users", 1, Duration.ZERO, circuitBreaker, meterRegistry);
+        loadShedder = new AdaptiveLoadShedder(true, Duration.ofSeconds(5), 1, 1, 1, 0.9, meterRegistry);
+        transport = new SingleFlightServerTransport(new GuardedServerTransport(server, guard, loadShedder), "/users",
+                new ConcurrentHashMap<>(), meterRegistry);
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> get(String path) {
+        return transport.exchange(HttpMethod.GET, path, null, new HttpHeaders(), null);
+    }
+
+    @Test
+    @DisplayName("Тест: объединённые GET занимают одно разрешение и дают один результат circuit breaker")
+    void coalescedGetTest() {
+        List<CompletableFuture<ResponseEntity<byte[]>>> calls = new ArrayList<>();
+        for (int i = 0; i < 25; i++) { // bulkhead и лимит - 1 запрос
+            calls.add(get("/1"));
+        }
+        Assertions.assertEquals(1, guard.status().getInFlight());
+
+        response.complete(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+
+        calls.forEach(call -> Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, call.join().getStatusCode()));
+        Mockito.verify(server, Mockito.times(1))
+                .exchange(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+        Assertions.assertEquals(0, guard.status().getInFlight());
+        Assertions.assertEquals(1, guard.status().getBufferedCalls());
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, guard.status().getState());
+        Assertions.assertTrue(loadShedder.tryAcquire()); // разрешение лимита возвращено один раз
+        Assertions.assertFalse(loadShedder.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Тест: отказ bulkhead другому GET - 503 без запроса к shareit-server")
+    void bulkheadRejectTest() {
+        CompletableFuture<ResponseEntity<byte[]>> first = get("/1");
+
+        RetryLaterException e = Assertions.assertThrows(RetryLaterException.class, () -> get("/2"));
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        Assertions.assertEquals("1", e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        Mockito.verify(server, Mockito.times(1))
+                .exchange(Mockito.any(), Mockito.eq("/1"), Mockito.any(), Mockito.any(), Mockito.any());
+        response.complete(ResponseEntity.ok().build());
+        Assertions.assertEquals(HttpStatus.OK, first.join().getStatusCode());
+        Assertions.assertEquals(1, guard.status().getBufferedCalls()); // отказ не записан в окно
+    }
+
+    @Test
+    @DisplayName("Тест: ошибка соединения blocking-транспорта освобождает разрешение и считается неудачей")
+    void synchronousFailureTest() {
+        Mockito.when(server.exchange(Mockito.any(), Mockito.eq("/3"), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenThrow(new IllegalStateException("Connection refused"));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> get("/3"));
+        Assertions.assertThrows(IllegalStateException.class, () -> get("/3"));
+
+        Assertions.assertEquals(0, guard.status().getInFlight());
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, guard.status().getState()); // 2 из 2 - неудачи
+        Assertions.assertThrows(RetryLaterException.class, () -> get("/1"));
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+@DisplayName("Тесты класса SingleFlightServerTransport")
+public class SingleFlightServerTransportTest {
+
+    private ServerTransport server;
+    private SingleFlightServerTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        server = Mockito.mock(ServerTransport.class);
+        Mockito.when(server.exchange(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> new CompletableFuture<>());
+        transport = new SingleFlightServerTransport(server, "/items", new ConcurrentHashMap<>(),
+                new SimpleMeterRegistry());
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> get(long userId, Map<String, Object> parameters) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return transport.exchange(HttpMethod.GET, "/search", parameters, headers, null);
+    }
+
+    private void verifyServerCalls(int times) {
+        Mockito.verify(server, Mockito.times(times))
+                .exchange(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Тест на объединение GET только с тем же пользователем и параметрами")
+    void keyTest() {
+        get(1, Map.of("text", "дрель", "from", 0));
+        get(1, Map.of("from", 0, "text", "дрель")); // порядок параметров не важен
+        verifyServerCalls(1);
+
+        get(2, Map.of("text", "дрель", "from", 0));
+        get(1, Map.of("text", "пила", "from", 0));
+        verifyServerCalls(3);
+    }
+
+    @Test
+    @DisplayName("Тест: изменяющий запрос закрывает присоединение к выполняющимся GET")
+    void writeClearsInFlightTest() {
+        get(1, Map.of("text", "дрель"));
+        Mockito.when(server.exchange(Mockito.eq(HttpMethod.PATCH), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any())).thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().build()));
+
+        transport.exchange(HttpMethod.PATCH, "/1", null, new HttpHeaders(), "{}");
+        get(1, Map.of("text", "дрель"));
+
+        verifyServerCalls(3);
+    }
+
+    @Test
+    @DisplayName("Тест: отмена у одного клиента не отменяет ответ остальным")
+    void cancelTest() {
+        CompletableFuture<ResponseEntity<byte[]>> response = new CompletableFuture<>();
+        Mockito.when(server.exchange(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(response);
+        CompletableFuture<ResponseEntity<byte[]>> first = get(1, Map.of());
+        CompletableFuture<ResponseEntity<byte[]>> second = get(1, Map.of());
+
+        first.cancel(true);
+        response.complete(ResponseEntity.ok(new byte[] {1}));
+
+        Assertions.assertArrayEquals(new byte[] {1}, second.join().getBody());
+        verifyServerCalls(1);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("Тесты класса ItemBatchReader")
+public class ItemBatchReaderTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json() // как в Spring Boot
+            .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT)) // конструктор ItemDto
+            .build();
+    private final ItemBatchReader reader = new ItemBatchReader(objectMapper, 10);
+
+    private ItemBatch read(String body) {
+        return reader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Тест: строка со значением не того типа отклоняется, остальные уходят на сервер")
+    void typeMismatchTest() {
+        ItemBatch batch = read("[{\"name\":\"Дрель\"}, {\"available\":\"да\"}, 5, null, {\"name\":\"Пила\"}]");
+
+        Assertions.assertEquals(3, batch.getItems().size());
+        Assertions.assertEquals("Пила", batch.getItems().get(2).getName());
+        Assertions.assertEquals(List.of(0, 3, 4), batch.getRowIndexes());
+        Assertions.assertEquals(Map.of(1, "Некорректное значение available.", 2, "Строка не является Item."),
+                batch.getErrors());
+    }
+
+    @Test
+    @DisplayName("Тест: синтаксически некорректный JSON отклоняет весь запрос - 400")
+    void malformedJsonTest() {
+        ResponseStatusException exception = Assertions.assertThrows(ResponseStatusException.class,
+                () -> read("{\"name\":\"Дрель\"}\n{\"name\":"));
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    @DisplayName("Тест на добавление ошибок gateway к ответу сервера с номерами строк запроса")
+    void addRowErrorsTest() throws Exception {
+        ItemBatch batch = read("[{\"name\":\"Дрель\"}, {\"available\":[]}, {\"name\":\"\"}]");
+        byte[] serverBody = objectMapper.writeValueAsBytes(Map.of("created", List.of(Map.of("id", 1)),
+                "errors", List.of(Map.of("index", 1, "error", "Не задано name."))));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentLength(serverBody.length);
+
+        ResponseEntity<Object> response = reader.addRowErrors(batch,
+                ResponseEntity.ok().headers(headers).body(serverBody));
+
+        JsonNode result = objectMapper.readTree((byte[]) response.getBody());
+        Assertions.assertEquals(1, result.get("created").size());
+        Assertions.assertEquals(objectMapper.readTree("[{\"index\":1,\"error\":\"Некорректное значение available.\"},"
+                + "{\"index\":2,\"error\":\"Не задано name.\"}]"), result.get("errors"));
+        Assertions.assertFalse(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+    }
+}
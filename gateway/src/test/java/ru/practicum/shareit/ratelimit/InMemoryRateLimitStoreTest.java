@@ -0,0 +1,71 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Тесты класса InMemoryRateLimitStore")
+public class InMemoryRateLimitStoreTest {
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+
+    @Test
+    @DisplayName("Тест на пропуск capacity запросов подряд и время ожидания следующего")
+    void burstTest() {
+        RateLimit limit = RateLimit.parse("3:0.5"); // токен раз в 2 секунды
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, store.tryAcquire("user:1", limit));
+        }
+        long wait = store.tryAcquire("user:1", limit);
+
+        Assertions.assertTrue(wait > 1_000_000_000L && wait <= 2_000_000_000L, "ожидание " + wait);
+        Assertions.assertEquals(0, store.tryAcquire("user:2", limit)); // у другого ключа своя корзина
+    }
+
+    @Test
+    @DisplayName("Тест на точный лимит при одновременных запросах")
+    void concurrentTest() throws InterruptedException {
+        RateLimit limit = RateLimit.parse("50:0.001");
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int j = 0; j < 100; j++) {
+                    if (store.tryAcquire("user:1", limit) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            }, executor));
+        }
+
+        start.countDown();
+        CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+        executor.shutdown();
+
+        Assertions.assertEquals(50, allowed.get());
+    }
+
+    @Test
+    @DisplayName("Тест на разбор лимита capacity:refillPerSecond")
+    void parseTest() {
+        Assertions.assertEquals(new RateLimit(20, 5), RateLimit.parse(" 20 : 5 "));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("20"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("0:5"));
+    }
+}
@@ -1,14 +1,22 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Slf4j
@@ -18,6 +26,9 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+
+    private static final MediaType NDJSON_UTF8 = new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8);
 
     @PostMapping
     public ResponseEntity<BookingResponseDto> bookingCreate(@RequestBody BookingRequestDto bookingRequestDto,
@@ -69,4 +80,44 @@ public class BookingController {
                 ownerId);
         return new ResponseEntity<>(bookingService.getAllByOwner(from, size, state, ownerId), HttpStatus.OK);
     }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<BookingPageDto> getPageByBooker(
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10", required = false) int size,
+            @RequestHeader("X-Sharer-User-Id") long bookerId) {
+        log.info("Получен GET запрос по эндпоинту /bookings/cursor от User c ID {} на получение страницы Booking "
+                + "этого User после cursor {}.", bookerId, cursor);
+        return new ResponseEntity<>(bookingService.getPageByBooker(cursor, size, state, bookerId), HttpStatus.OK);
+    }
+
+    @GetMapping("/owner/cursor")
+    public ResponseEntity<BookingPageDto> getPageByOwner(
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10", required = false) int size,
+            @RequestHeader("X-Sharer-User-Id") long ownerId) {
+        log.info("Получен GET запрос по эндпоинту /bookings/owner/cursor от User c ID {} на получение страницы "
+                + "Booking всех Items для которых он Owner после cursor {}.", ownerId, cursor);
+        return new ResponseEntity<>(bookingService.getPageByOwner(cursor, size, state, ownerId), HttpStatus.OK);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId) {
+        log.info("Получен GET запрос по эндпоинту /bookings/owner/export от User c ID {} на выгрузку всех Booking "
+                + "всех Items для которых он Owner.", ownerId);
+        bookingService.requireUser(ownerId);
+        ObjectWriter writer = objectMapper.writerFor(BookingResponseDto.class);
+        return ResponseEntity.ok()
+                .contentType(NDJSON_UTF8)
+                .body(out -> bookingService.exportByOwner(ownerId, booking -> { // в потоке MVC async, Booking
+                    try { // пишутся в ответ по мере чтения из БД: одна строка JSON на Booking
+                        out.write(writer.writeValueAsBytes(booking));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+    }
 }
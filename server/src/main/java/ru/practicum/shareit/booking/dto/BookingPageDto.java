@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@EqualsAndHashCode
+@NoArgsConstructor
+public class BookingPageDto {
+    private List<BookingResponseDto> bookings;
+    private String nextCursor; // передаётся в следующий запрос; null - больше страниц нет
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.lastnext;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+
+@Getter
+@AllArgsConstructor
+public class LastNextBookings {
+    private final BookingShortDto lastBooking; // последнее APPROVED бронирование с началом до now
+    private final BookingShortDto nextBooking; // ближайшее APPROVED бронирование с началом после now
+}
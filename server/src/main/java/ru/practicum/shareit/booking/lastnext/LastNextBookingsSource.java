@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.lastnext;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Источник lastBooking/nextBooking Item для Owner без запросов к bookings. Реализация выбирается свойством
+ * shareit.booking.last-next.source: bookings (по умолчанию - только запросы к bookings), timeline (индекс
+ * в памяти процесса, {@link ru.practicum.shareit.booking.timeline.BookingTimeline}) или summary (сводка в БД,
+ * {@link ru.practicum.shareit.booking.summary.BookingSummary}).
+ */
+public interface LastNextBookingsSource {
+
+    default Optional<LastNextBookings> find(Long itemId, LocalDateTime now) { // пусто - источник не знает Item,
+        // вызывающий считает last/next запросами к bookings
+        return Optional.empty();
+    }
+
+    default Map<Long, LastNextBookings> findAll(Collection<Long> itemIds, LocalDateTime now) { // только Item,
+        // известные источнику, - остальные вызывающий считает сам
+        return Map.of();
+    }
+
+    default void onSaved(Booking booking) { // вызывается в транзакции создания Booking и изменения его статуса
+    }
+
+    default void onItemDeleted(Long itemId) { // вызывается в транзакции удаления Item
+    }
+
+    default void onUserDeleted(Long userId) { // вызывается в транзакции удаления User: его Item и Booking
+        // удалены каскадом в БД
+    }
+}
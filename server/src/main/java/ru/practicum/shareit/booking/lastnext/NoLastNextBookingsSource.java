@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.lastnext;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Без индекса и сводки: last/next каждый раз считаются запросами к bookings.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.last-next.source", havingValue = "bookings", matchIfMissing = true)
+public class NoLastNextBookingsSource implements LastNextBookingsSource {
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookerItemEnd {
+    private final Long bookerId;
+    private final Long itemId;
+    private final LocalDateTime end; // окончание первого завершённого бронирования Item этим User
+}
@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER, attributeNodes = { // всё, что читает
+        @NamedAttributeNode("item"), @NamedAttributeNode("booker")}) // BookingMapper.bookingToResponse
 @Getter
 @Setter
 @Builder
@@ -20,6 +22,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Booking {
 
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -39,4 +43,9 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private StatusType status;
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId; // item.owner.id на момент создания (Owner у Item не меняется) - списки Owner без join
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version; // оптимистическая блокировка: смена status проверяет, что Booking не изменён параллельно
 }
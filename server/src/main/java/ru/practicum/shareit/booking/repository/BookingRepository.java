@@ -1,67 +1,95 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookerItemEnd;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.timeline.BookingTimelineEntry;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findBookingByBookerOrderByStartDesc(User user, Pageable pageable); // возвращает список всех
     // бронирований пользователя, отсортированных по времени начала, начиная с самого позднего.
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findBookingByBookerAndStatusOrderByStartDesc(User user, StatusType state,
             Pageable pageable); // возвращает список
     // всех бронирований пользователя с определённым StatusType, отсортированных по времени начала, начиная с самого позднего
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findBookingByBookerAndStartBeforeAndEndAfterOrderByStartDesc(User user, LocalDateTime dateTime,
             LocalDateTime dateTime1,
             Pageable pageable); // возвращает список всех бронирований пользователя, которые происходят
     // в указанный промежуток времени, отсортированных по времени начала, начиная с самого позднего.
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findBookingByBookerAndEndBeforeOrderByStartDesc(User user, LocalDateTime dateTime,
             Pageable pageable); //  находит
     // все бронирования, которые были сделаны определенным пользователем и заканчиваются до указанного времени.
     // Бронирования отсортированы по времени начала в обратном порядке, начиная с самого позднего.
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findBookingByBookerAndStartAfterOrderByStartDesc(User user, LocalDateTime dateTime,
             Pageable pageable); // находит
     // все бронирования, которые были сделаны определенным пользователем и начинаются после указанного времени.
     // Бронирования отсортированы по времени начала в обратном порядке, начиная с самого позднего.
 
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.status = ?2 order by B.start desc")
+    // списки Owner: B.ownerId вместо B.item.owner.id - без соединения с items, по индексу
+    // (owner_id, start_date DESC, id DESC); ownerId в ORDER BY не меняет порядок (он задан в WHERE), но без него
+    // H2 не использует индекс для сортировки и сортирует все бронирования Owner
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "SELECT B FROM Booking B WHERE B.ownerId = ?1 AND B.status = ?2 "
+            + "ORDER BY B.ownerId, B.start DESC")
     List<Booking> getBookingsForOwnerByStatus(Long ownerId, StatusType status, Pageable pageable); //  все бронирования,
     // для вещей User Owner и имеют указанный статус. Бронирования отсортированы по времени начала в обратном порядке,
     // начиная с самого позднего.
 
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 ORDER BY B.start DESC")
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "SELECT B FROM Booking B WHERE B.ownerId = ?1 ORDER BY B.ownerId, B.start DESC")
     List<Booking> getAllBookingsForOwner(Long ownerId, Pageable pageable); //  все бронирования, для вещей User Owner.
     // Бронирования отсортированы по времени начала в обратном порядке, начиная с самого позднего.
 
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.start < ?2 AND B.end > ?3 ORDER BY B.start DESC")
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "SELECT B FROM Booking B WHERE B.ownerId = ?1 AND B.start < ?2 AND B.end > ?3 "
+            + "ORDER BY B.ownerId, B.start DESC")
     List<Booking> getCurrentBookingForOwner(Long ownerId, LocalDateTime date1, LocalDateTime date2, Pageable pageable);
     // все ТЕКУЩИЕ бронирования, для вещей User Owner. Бронирования отсортированы по времени начала в обратном порядке,
     // начиная с самого позднего.
 
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.end < ?2 ORDER BY B.start DESC")
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "SELECT B FROM Booking B WHERE B.ownerId = ?1 AND B.end < ?2 ORDER BY B.ownerId, B.start DESC")
     List<Booking> getPastBookingForOwner(Long ownerId, LocalDateTime date, Pageable pageable);
     // все ПРОШЛЫЕ бронирования, для вещей User Owner. Бронирования отсортированы по времени начала в обратном порядке,
     // начиная с самого позднего.
 
-    @Query(value = "SELECT B FROM Booking B WHERE B.item.owner.id = ?1 AND B.start > ?2 ORDER BY B.start DESC")
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "SELECT B FROM Booking B WHERE B.ownerId = ?1 AND B.start > ?2 ORDER BY B.ownerId, B.start DESC")
     List<Booking> getFutureBookingForOwner(Long ownerId, LocalDateTime date, Pageable pageable);
     // все БУДУЩИЕ бронирования, для вещей User Owner. Бронирования отсортированы по времени начала в обратном порядке,
     // начиная с самого позднего.
 
-    List<Booking> findAllByBooker_IdAndItem_IdAndEndBefore(Long userId, Long itemId, LocalDateTime localDateTime);
-    // все ОКОНЧЕННЫЕ бронирования для данного пользователя для данного предмета.
+    boolean existsByBooker_IdAndItem_IdAndEndBefore(Long userId, Long itemId, LocalDateTime localDateTime);
+    // есть ли ОКОНЧЕННОЕ бронирование данного пользователя для данного предмета.
+
+    @Query(value = "SELECT new ru.practicum.shareit.booking.model.BookerItemEnd(B.booker.id, B.item.id, MIN(B.end)) "
+            + "FROM Booking B WHERE B.booker.id IN ?1 AND B.item.id IN ?2 AND B.end < ?3 "
+            + "GROUP BY B.booker.id, B.item.id")
+    List<BookerItemEnd> findFirstEnds(Collection<Long> bookerIds, Collection<Long> itemIds, LocalDateTime before);
+    // для пар (booker, item) из пакета Comment - окончание первого завершённого бронирования, одним запросом
 
     Booking findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(long itemId, LocalDateTime end,
             StatusType statusType); // находит последнее оконченное бронирование для данного предмета
@@ -69,5 +97,54 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Booking findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(long itemId, LocalDateTime start,
             StatusType statusType); // находит ближайшее будущее бронирование для данного предмета
 
-}
+    @Query(value = "SELECT count(B) > 0 FROM Booking B WHERE B.item.id = ?1 AND B.status IN ?4 "
+            + "AND B.start < ?3 AND B.end > ?2")
+    boolean existsOverlapping(Long itemId, LocalDateTime start, LocalDateTime end,
+            Collection<StatusType> statuses); // есть ли у Item бронирование с указанными статусами,
+    // пересекающееся с интервалом [start, end)
+
+    @Query(value = "SELECT id, start_date, end_date, item_id, booker_id, status, owner_id, version FROM ("
+            + "SELECT B.*, ROW_NUMBER() OVER (PARTITION BY B.item_id ORDER BY B.end_date DESC) AS rn "
+            + "FROM bookings B WHERE B.item_id IN (?1) AND B.status = 'APPROVED' AND B.start_date < ?2) L "
+            + "WHERE L.rn = 1 "
+            + "UNION ALL "
+            + "SELECT id, start_date, end_date, item_id, booker_id, status, owner_id, version FROM ("
+            + "SELECT B.*, ROW_NUMBER() OVER (PARTITION BY B.item_id ORDER BY B.start_date ASC) AS rn "
+            + "FROM bookings B WHERE B.item_id IN (?1) AND B.status = 'APPROVED' AND B.start_date > ?2) N "
+            + "WHERE N.rn = 1", nativeQuery = true)
+    List<Booking> findLastAndNextApprovedByItemIds(Collection<Long> itemIds, LocalDateTime now); // для каждого
+    // item_id из списка одним запросом находит последнее (start < now) и ближайшее (start > now) APPROVED бронирование
+
+    @Query(value = "SELECT new ru.practicum.shareit.booking.timeline.BookingTimelineEntry("
+            + "B.id, B.item.id, B.booker.id, B.start, B.end) "
+            + "FROM Booking B WHERE B.item.id IN ?1 AND B.status = ?2")
+    List<BookingTimelineEntry> findTimelineEntries(Collection<Long> itemIds, StatusType status); // бронирования
+    // с данным статусом для списка item_id - только поля, нужные индексу BookingTimeline
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "SELECT B FROM Booking B WHERE B.booker.id = ?1 AND B.status IN ?2 "
+            + "AND B.start > ?3 AND B.start < ?4 AND B.end > ?5 AND B.end < ?6 "
+            + "AND (B.start < ?7 OR (B.start = ?7 AND B.id < ?8)) ORDER BY B.start DESC, B.id DESC")
+    List<Booking> seekByBooker(Long bookerId, Collection<StatusType> statuses, LocalDateTime startAfter,
+            LocalDateTime startBefore, LocalDateTime endAfter, LocalDateTime endBefore, LocalDateTime cursorStart,
+            Long cursorId, Pageable pageable); // страница бронирований User после позиции (cursorStart, cursorId)
+    // в порядке (start DESC, id DESC) - стоимость не зависит от глубины страницы, в отличие от OFFSET
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query(value = "SELECT B FROM Booking B WHERE B.ownerId = ?1 AND B.status IN ?2 "
+            + "AND B.start > ?3 AND B.start < ?4 AND B.end > ?5 AND B.end < ?6 "
+            + "AND (B.start < ?7 OR (B.start = ?7 AND B.id < ?8)) ORDER BY B.ownerId, B.start DESC, B.id DESC")
+    List<Booking> seekByOwner(Long ownerId, Collection<StatusType> statuses, LocalDateTime startAfter,
+            LocalDateTime startBefore, LocalDateTime endAfter, LocalDateTime endBefore, LocalDateTime cursorStart,
+            Long cursorId, Pageable pageable); // то же для бронирований всех вещей User Owner
+
+    int EXPORT_FETCH_SIZE = 500; // строк за один обмен с БД при потоковой выгрузке
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints({@QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    @Query(value = "SELECT B FROM Booking B WHERE B.ownerId = ?1 ORDER BY B.ownerId, B.start DESC, B.id DESC")
+    Stream<Booking> streamByOwner(Long ownerId); // вся история бронирований вещей Owner курсором БД - читать
+    // внутри транзакции и закрывать Stream
 
+}
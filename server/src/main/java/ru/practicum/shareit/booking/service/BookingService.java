@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -21,5 +23,16 @@ public interface BookingService {
 
     List<BookingResponseDto> getAllByOwner(int from, int size, String state, Long bookerId);
 
+    BookingPageDto getPageByBooker(String cursor, int size, String state, Long bookerId); // то же, что
+    // getAllByBooker, но страница задаётся cursor из предыдущего ответа, а не смещением from
+
+    BookingPageDto getPageByOwner(String cursor, int size, String state, Long ownerId);
+
+    void requireUser(Long userId); // EntityNotFoundException, если User нет - проверка до начала потоковой
+    // выгрузки, после первой записи в ответ статус уже не изменить
+
+    long exportByOwner(Long ownerId, Consumer<BookingResponseDto> consumer); // все Booking вещей Owner
+    // по одному в consumer, без загрузки всего списка в память; возвращает количество выгруженных Booking
+
 
 }
@@ -2,15 +2,22 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.lastnext.LastNextBookingsSource;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.StatusType;
@@ -19,12 +26,17 @@ import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
@@ -34,15 +46,27 @@ public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final BookingSlotGuard bookingSlotGuard;
+    private final LastNextBookingsSource lastNextBookings;
+    private final EntityManager entityManager;
+    private final TransactionOperations transactionOperations;
 
     private static final String BOOKING_NOT_FOUND_ERROR = "Нет такого Booking.";
     private static final String USER_NOT_FOUND_ERROR = "Нет такого User.";
+    private static final String BOOKING_OVERLAP_ERROR = "Item уже забронирован на пересекающийся период.";
+    private static final String EXCLUSION_VIOLATION = "23P01"; // SQLState нарушения EXCLUDE - в bookings только
+    // bookings_item_no_overlap (PostgreSQL, V4)
+    private static final String BOOKING_CONFLICT_ERROR = "Booking изменён параллельно, повторите запрос.";
+    private static final int CONFIRM_MAX_ATTEMPTS = 3;
+    private static final List<StatusType> SLOT_HOLDING_STATUSES = List.of(StatusType.WAITING, StatusType.APPROVED);
+    private static final LocalDateTime SEEK_MIN = LocalDateTime.of(1, 1, 1, 0, 0); // открытые границы
+    private static final LocalDateTime SEEK_MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59); // в seek-запросах
 
     @Override
     @Transactional
     public BookingResponseDto create(BookingRequestDto bookingRequestDto, Long userId) {
-        User user = userRepository.findById(userId)
+        User user = userCache.find(userId)
                 .orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
         Item item = itemRepository.findById(bookingRequestDto.getItemId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item не найден."));
@@ -65,18 +89,53 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(StatusType.WAITING);
         booking.setBooker(user);
         booking.setItem(item);
-        bookingRepository.save(booking);
+        booking.setOwnerId(item.getOwner().getId());
+
+        bookingSlotGuard.lock(item.getId());
+        if (bookingRepository.existsOverlapping(item.getId(), booking.getStart(), booking.getEnd(),
+                SLOT_HOLDING_STATUSES)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, BOOKING_OVERLAP_ERROR);
+        }
+        try {
+            bookingRepository.save(booking);
+        } catch (DataIntegrityViolationException e) { // конкурент успел раньше - сработал constraint в БД
+            if (!hasSqlState(e, EXCLUSION_VIOLATION)) {
+                throw e; // другие нарушения (например, User удалён) - не пересечение периодов
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, BOOKING_OVERLAP_ERROR);
+        }
+        lastNextBookings.onSaved(booking);
         log.info("Создан Booking {} от User c ID {}.", booking, userId);
         return BookingMapper.bookingToResponse(booking);
     }
 
+    private static boolean hasSqlState(DataIntegrityViolationException e, String sqlState) {
+        Throwable cause = e.getMostSpecificCause(); // SQLException драйвера - код не зависит от текста и языка
+        // сообщения
+        return cause instanceof SQLException && sqlState.equals(((SQLException) cause).getSQLState());
+    }
+
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // каждая попытка - в своей транзакции
     public BookingResponseDto confirm(Long bookingId, Long userOwnerId, boolean approved) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionOperations.execute(status -> confirmOnce(bookingId, userOwnerId, approved));
+            } catch (ObjectOptimisticLockingFailureException e) { // повтор перечитает статус: уже не WAITING - 400
+                if (attempt == CONFIRM_MAX_ATTEMPTS) {
+                    log.info("Booking с ID {} не подтверждён за {} попыток.", bookingId, attempt);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, BOOKING_CONFLICT_ERROR);
+                }
+                log.info("Booking с ID {} изменён параллельно, попытка {} подтверждения.", bookingId, attempt + 1);
+            }
+        }
+    }
+
+    private BookingResponseDto confirmOnce(Long bookingId, Long userOwnerId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException(BOOKING_NOT_FOUND_ERROR));
 
-        if (!userRepository.existsById(userOwnerId)) {
+        if (!userCache.exists(userOwnerId)) {
             throw new EntityNotFoundException(USER_NOT_FOUND_ERROR);
         }
 
@@ -104,6 +163,8 @@ public class BookingServiceImpl implements BookingService {
             log.info("UserOwner c ID {} отклонил (REJECTED) запрос на Booking с id = {} ", userOwnerId,
                     booking.getId());
         }
+        bookingRepository.saveAndFlush(booking); // UPDATE ... WHERE version = ? - конфликт выявляется здесь,
+        lastNextBookings.onSaved(booking); // до обновления индекса или сводки
 
         return BookingMapper.bookingToResponse(booking);
     }
@@ -124,7 +185,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingResponseDto> getAllByBooker(int from, int size, String state, Long bookerId) {
-        User user = userRepository.findById(bookerId)
+        User user = userCache.find(bookerId)
                 .orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
         List<Booking> bookList;
         Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
@@ -160,9 +221,10 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingResponseDto> getAllByOwner(int from, int size, String state, Long ownerId) {
-        userRepository.findById(ownerId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
+        userCache.find(ownerId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
         List<Booking> bookList;
-        Pageable pageable = PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "start"));
+        Pageable pageable = PageRequest.of(from / size, size); // порядок задан в запросах - лишний Sort
+        // в ORDER BY мешает H2 читать страницу по индексу (owner_id, start_date DESC, id DESC)
         switch (state) {
             case "ALL":
                 bookList = bookingRepository.getAllBookingsForOwner(ownerId, pageable);
@@ -189,4 +251,83 @@ public class BookingServiceImpl implements BookingService {
         return bookList.stream().map(BookingMapper::bookingToResponse).collect(Collectors.toList());
     }
 
+    @Override
+    public BookingPageDto getPageByBooker(String cursor, int size, String state, Long bookerId) {
+        userCache.find(bookerId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
+        return seek(cursor, size, state, bookerId, bookingRepository::seekByBooker);
+    }
+
+    @Override
+    public BookingPageDto getPageByOwner(String cursor, int size, String state, Long ownerId) {
+        userCache.find(ownerId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
+        return seek(cursor, size, state, ownerId, bookingRepository::seekByOwner);
+    }
+
+    @Override
+    public void requireUser(Long userId) {
+        if (!userCache.exists(userId)) {
+            throw new EntityNotFoundException(USER_NOT_FOUND_ERROR);
+        }
+    }
+
+    @Override
+    public long exportByOwner(Long ownerId, Consumer<BookingResponseDto> consumer) {
+        requireUser(ownerId);
+        long count = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamByOwner(ownerId)) {
+            for (Booking booking : (Iterable<Booking>) bookings::iterator) {
+                consumer.accept(BookingMapper.bookingToResponse(booking));
+                if (++count % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear(); // выгруженные Booking, Item и User не копятся в контексте
+                }
+            }
+        }
+        log.info("Выгружено {} Booking для User(Owner) c ID {}.", count, ownerId);
+        return count;
+    }
+
+    private BookingPageDto seek(String cursor, int size, String state, Long userId, SeekQuery query) {
+        BookingCursor after = BookingCursor.decode(cursor);
+        LocalDateTime now = LocalDateTime.now();
+        List<StatusType> statuses = List.of(StatusType.values());
+        LocalDateTime startAfter = SEEK_MIN;
+        LocalDateTime startBefore = SEEK_MAX;
+        LocalDateTime endAfter = SEEK_MIN;
+        LocalDateTime endBefore = SEEK_MAX;
+        switch (state) { // каждый BookingState сводится к границам по start/end и набору статусов
+            case "ALL":
+                break;
+            case "WAITING":
+            case "REJECTED":
+                statuses = List.of(StatusType.valueOf(state));
+                break;
+            case "CURRENT":
+                startBefore = now;
+                endAfter = now;
+                break;
+            case "PAST":
+                endBefore = now;
+                break;
+            case "FUTURE":
+                startAfter = now;
+                break;
+            default:
+                throw new UnsupportedStatusException("Неподдерживаемый параметр BookingState");
+        }
+        List<Booking> bookList = query.find(userId, statuses, startAfter, startBefore, endAfter, endBefore,
+                after.getStart(), after.getId(), PageRequest.of(0, size));
+        String nextCursor = bookList.size() < size ? null
+                : BookingCursor.after(bookList.get(bookList.size() - 1)).encode();
+        return BookingPageDto.builder()
+                .bookings(bookList.stream().map(BookingMapper::bookingToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface SeekQuery { // BookingRepository.seekByBooker или seekByOwner
+        List<Booking> find(Long userId, Collection<StatusType> statuses, LocalDateTime startAfter,
+                LocalDateTime startBefore, LocalDateTime endAfter, LocalDateTime endBefore,
+                LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+    }
 }
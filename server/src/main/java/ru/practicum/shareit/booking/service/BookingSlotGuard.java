@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.service;
+
+public interface BookingSlotGuard {
+
+    void lock(Long itemId); // вызывается внутри транзакции перед проверкой пересечения интервалов Booking
+    // для данного Item; блокировка (если есть) удерживается до завершения транзакции
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Пересечения интервалов запрещает сама БД - EXCLUDE constraint bookings_item_no_overlap в PostgreSQL,
+ * поэтому блокировка на стороне приложения не нужна.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.overlap-guard", havingValue = "constraint", matchIfMissing = true)
+public class ConstraintBookingSlotGuard implements BookingSlotGuard {
+
+    @Override
+    public void lock(Long itemId) {
+    }
+}
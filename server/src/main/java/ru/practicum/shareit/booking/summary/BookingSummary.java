@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+import ru.practicum.shareit.booking.lastnext.LastNextBookingsSource;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сводка last/next APPROVED бронирований по Item в таблице item_booking_summaries: чтение Item для Owner -
+ * одна строка по ключу вместо вычисления по bookings. В отличие от индекса BookingTimeline в памяти процесса
+ * хранится в БД и подходит для нескольких экземпляров server.
+ * Строка действительна, пока не начался её next Booking. Подтверждение Booking обновляет строку в транзакции
+ * confirm, удаление User сбрасывает строки с его Booking, устаревшие и новые строки пересчитывает
+ * {@link #rollForward()}, а {@link #check()} сверяет сводку с bookings и пересчитывает расходящиеся строки.
+ * Включается shareit.booking.last-next.source=summary.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.last-next.source", havingValue = "summary")
+public class BookingSummary implements LastNextBookingsSource {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+
+    public BookingSummary(ItemBookingSummaryRepository summaryRepository, BookingRepository bookingRepository,
+            TransactionOperations transactionOperations,
+            @Value("${shareit.booking.summary.batch-size:500}") int batchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Optional<LastNextBookings> find(Long itemId, LocalDateTime now) {
+        return summaryRepository.findById(itemId)
+                .filter(summary -> summary.isValidAt(now))
+                .map(ItemBookingSummary::toLastNext);
+    }
+
+    @Override
+    public Map<Long, LastNextBookings> findAll(Collection<Long> itemIds, LocalDateTime now) { // только
+        // действительные строки - остальные Item вызывающий считает сам
+        return summaryRepository.findAllByItemIdIn(itemIds).stream()
+                .filter(summary -> summary.isValidAt(now))
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, ItemBookingSummary::toLastNext));
+    }
+
+    @Override
+    public void onSaved(Booking booking) {
+        onApproved(booking, LocalDateTime.now());
+    }
+
+    public void onApproved(Booking booking, LocalDateTime now) { // вызывается в транзакции confirm
+        if (!StatusType.APPROVED.equals(booking.getStatus())) {
+            return;
+        }
+        if (booking.getStart().isAfter(now)) {
+            summaryRepository.offerNext(booking.getItem().getId(), booking.getId(), booking.getBooker().getId(),
+                    booking.getStart());
+        } else if (booking.getStart().isBefore(now)) {
+            summaryRepository.offerLast(booking.getItem().getId(), booking.getId(), booking.getBooker().getId(),
+                    booking.getEnd());
+        }
+    }
+
+    @Override
+    public void onUserDeleted(Long userId) { // строки со ссылками на удалённые каскадом Booking User пересчитает
+        // rollForward, строки его Item удалены каскадом
+        summaryRepository.invalidateBookedBy(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.summary.roll-forward-delay:PT30S}",
+            initialDelayString = "${shareit.booking.summary.roll-forward-delay:PT30S}")
+    public void rollForward() {
+        rollForward(LocalDateTime.now());
+    }
+
+    public int rollForward(LocalDateTime now) { // добавляет строки новых Item и пересчитывает устаревшие
+        Integer inserted = transactionOperations.execute(status -> summaryRepository.insertMissing());
+        int refreshed = 0;
+        List<Long> itemIds;
+        while (!(itemIds = summaryRepository.findStaleItemIds(now, PageRequest.of(0, batchSize))).isEmpty()) {
+            List<Long> batch = itemIds;
+            transactionOperations.executeWithoutResult(status -> refresh(batch, now));
+            refreshed += batch.size();
+        }
+        if (refreshed > 0) {
+            log.info("Сводка бронирований: добавлено {} Item, пересчитано {} Item.", inserted, refreshed);
+        }
+        return refreshed;
+    }
+
+    @Scheduled(cron = "${shareit.booking.summary.check-cron:0 30 3 * * *}")
+    public void check() {
+        check(LocalDateTime.now());
+    }
+
+    public int check(LocalDateTime now) { // сверяет действительные строки с bookings, расходящиеся пересчитывает
+        int mismatches = 0;
+        long afterItemId = 0;
+        List<ItemBookingSummary> page;
+        while (!(page = summaryRepository.findAllByItemIdGreaterThanOrderByItemIdAsc(afterItemId,
+                PageRequest.of(0, batchSize))).isEmpty()) {
+            afterItemId = page.get(page.size() - 1).getItemId();
+            Map<Long, ItemBookingSummary> actual = page.stream()
+                    .filter(summary -> summary.isValidAt(now))
+                    .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+            if (actual.isEmpty()) {
+                continue;
+            }
+            Map<Long, ItemBookingSummary> expected = compute(actual.keySet(), now);
+            List<Long> diverged = actual.values().stream()
+                    .filter(summary -> !sameBookings(summary, expected.get(summary.getItemId())))
+                    .map(ItemBookingSummary::getItemId)
+                    .collect(Collectors.toList());
+            if (!diverged.isEmpty()) {
+                log.warn("Сводка бронирований расходится с bookings для Item {}.", diverged);
+                transactionOperations.executeWithoutResult(status -> summaryRepository.invalidate(diverged));
+                mismatches += diverged.size();
+            }
+        }
+        if (mismatches > 0) {
+            rollForward(now);
+        }
+        log.info("Сводка бронирований проверена: расхождений {}.", mismatches);
+        return mismatches;
+    }
+
+    private void refresh(List<Long> itemIds, LocalDateTime now) {
+        List<Long> lockedIds = summaryRepository.lockAll(itemIds).stream() // строки удалённых Item уже пропали
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (!lockedIds.isEmpty()) {
+            summaryRepository.saveAll(compute(lockedIds, now).values()); // merge в уже загруженные строки -
+            // без повторного SELECT
+        }
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        for (Long itemId : itemIds) {
+            summaries.put(itemId, ItemBookingSummary.builder().itemId(itemId).refreshedAt(now).build());
+        }
+        for (Booking booking : bookingRepository.findLastAndNextApprovedByItemIds(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItem().getId());
+            if (booking.getStart().isBefore(now)) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastBookerId(booking.getBooker().getId());
+                summary.setLastEnd(booking.getEnd());
+            } else {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookerId(booking.getBooker().getId());
+                summary.setNextStart(booking.getStart());
+            }
+        }
+        return summaries;
+    }
+
+    private static boolean sameBookings(ItemBookingSummary actual, ItemBookingSummary expected) {
+        return Objects.equals(actual.getLastBookingId(), expected.getLastBookingId())
+                && Objects.equals(actual.getLastBookerId(), expected.getLastBookerId())
+                && Objects.equals(actual.getNextBookingId(), expected.getNextBookingId())
+                && Objects.equals(actual.getNextBookerId(), expected.getNextBookerId());
+    }
+}
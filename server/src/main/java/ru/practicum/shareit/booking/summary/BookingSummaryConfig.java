@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Запускает задачи {@link BookingSummary} по расписанию, только если сводка включена.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.booking.last-next.source", havingValue = "summary")
+public class BookingSummaryConfig {
+}
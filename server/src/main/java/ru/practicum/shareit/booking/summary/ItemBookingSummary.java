@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.*;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_booking_summaries")
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt; // null - строка ещё не рассчитана
+
+    public boolean isValidAt(LocalDateTime now) { // после начала next Booking сводка устарела: он может стать
+        // last, а next - следующий за ним
+        return refreshedAt != null && (nextStart == null || nextStart.isAfter(now));
+    }
+
+    public LastNextBookings toLastNext() {
+        return new LastNextBookings(shortDto(lastBookingId, lastBookerId), shortDto(nextBookingId, nextBookerId));
+    }
+
+    private static BookingShortDto shortDto(Long bookingId, Long bookerId) {
+        return bookingId == null ? null : BookingShortDto.builder().id(bookingId).bookerId(bookerId).build();
+    }
+}
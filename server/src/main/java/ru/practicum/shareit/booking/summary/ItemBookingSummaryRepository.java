@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    List<ItemBookingSummary> findAllByItemIdIn(Collection<Long> itemIds);
+
+    List<ItemBookingSummary> findAllByItemIdGreaterThanOrderByItemIdAsc(Long itemId, Pageable pageable); // обход
+    // всех строк страницами по item_id для проверки согласованности
+
+    @Query("SELECT S.itemId FROM ItemBookingSummary S WHERE S.refreshedAt IS NULL OR S.nextStart <= ?1 "
+            + "ORDER BY S.itemId")
+    List<Long> findStaleItemIds(LocalDateTime now, Pageable pageable); // строки, которые надо пересчитать
+
+    @Query(value = "SELECT * FROM item_booking_summaries WHERE item_id IN (?1) FOR UPDATE",
+            nativeQuery = true)
+    List<ItemBookingSummary> lockAll(Collection<Long> itemIds); // пересчёт держит строки, пока читает bookings: confirm,
+    // подтвердивший Booking в это время, применит своё изменение уже к пересчитанной строке
+
+    @Modifying
+    @Query(value = "INSERT INTO item_booking_summaries (item_id) SELECT I.id FROM items I "
+            + "WHERE NOT EXISTS (SELECT 1 FROM item_booking_summaries S WHERE S.item_id = I.id)", nativeQuery = true)
+    int insertMissing(); // нерассчитанные строки для новых Item
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary S SET S.nextBookingId = ?2, S.nextBookerId = ?3, S.nextStart = ?4 "
+            + "WHERE S.itemId = ?1 AND (S.nextStart IS NULL OR S.nextStart > ?4 "
+            + "OR (S.nextStart = ?4 AND S.nextBookingId > ?2))")
+    int offerNext(Long itemId, Long bookingId, Long bookerId, LocalDateTime start); // подтверждённый Booking
+    // становится next, только если начинается раньше текущего - условие проверяется в самом UPDATE
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary S SET S.lastBookingId = ?2, S.lastBookerId = ?3, S.lastEnd = ?4 "
+            + "WHERE S.itemId = ?1 AND (S.lastEnd IS NULL OR S.lastEnd < ?4)")
+    int offerLast(Long itemId, Long bookingId, Long bookerId, LocalDateTime end); // Booking, подтверждённый
+    // после своего начала, становится last, если заканчивается позже текущего
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary S SET S.refreshedAt = NULL WHERE S.itemId IN ?1")
+    int invalidate(Collection<Long> itemIds);
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary S SET S.refreshedAt = NULL WHERE S.lastBookerId = ?1 OR S.nextBookerId = ?1")
+    int invalidateBookedBy(Long bookerId); // строки, ссылающиеся на Booking удалённого User
+
+    @Modifying
+    @Query("UPDATE ItemBookingSummary S SET S.refreshedAt = NULL")
+    int invalidateAll();
+}
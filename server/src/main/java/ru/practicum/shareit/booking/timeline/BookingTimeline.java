@@ -0,0 +1,163 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+import ru.practicum.shareit.booking.lastnext.LastNextBookingsSource;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс APPROVED бронирований по Item в памяти процесса для вычисления lastBooking/nextBooking без запросов к БД.
+ * Размер ограничен: не более maxItems Item (вытесняются давно не запрошенные) и не более maxBookingsPerItem
+ * бронирований на Item (такие Item не кэшируются - для них {@link #find} пуст, и вызывающий использует запросы
+ * к bookings). Изменения применяются после commit транзакции через {@link #onSaved(Booking)}. Рассчитан на один
+ * экземпляр server, поэтому включается явно: shareit.booking.last-next.source=timeline.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.last-next.source", havingValue = "timeline")
+public class BookingTimeline implements LastNextBookingsSource {
+
+    private static final int LOAD_BATCH_SIZE = 500;
+    private static final int GENERATION_STRIPES = 1024; // степень двойки
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final int maxItems;
+    private final int maxBookingsPerItem;
+
+    private final Map<Long, ItemTimeline> timelines;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES); // поколение Item (с
+    // точностью до полосы) меняется при его изменении, чтобы не положить в индекс снимок, прочитанный из БД
+    // до конкурентного изменения того же Item
+    private final AtomicLong evictions = new AtomicLong(); // то же для evictAll
+
+    public BookingTimeline(BookingRepository bookingRepository, ItemRepository itemRepository,
+            @Value("${shareit.booking.timeline.max-items:100000}") int maxItems,
+            @Value("${shareit.booking.timeline.max-bookings-per-item:10000}") int maxBookingsPerItem) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.maxItems = maxItems;
+        this.maxBookingsPerItem = maxBookingsPerItem;
+        this.timelines = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemTimeline> eldest) {
+                return size() > BookingTimeline.this.maxItems;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Long> itemIds = itemRepository.findIds(PageRequest.of(0, maxItems, Sort.by(Sort.Direction.DESC, "id")));
+        for (int from = 0; from < itemIds.size(); from += LOAD_BATCH_SIZE) {
+            load(itemIds.subList(from, Math.min(from + LOAD_BATCH_SIZE, itemIds.size())));
+        }
+        log.info("Индекс бронирований прогрет: {} Item.", timelines.size());
+    }
+
+    @Override
+    public Optional<LastNextBookings> find(Long itemId, LocalDateTime now) { // пусто, если Item не в индексе
+        // и не попал в него при загрузке (слишком много бронирований или конкурентное изменение)
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            timeline = load(List.of(itemId)).get(itemId);
+        }
+        return Optional.ofNullable(timeline).map(loaded -> loaded.lastNext(now));
+    }
+
+    @Override
+    public void onSaved(Booking booking) {
+        BookingTimelineEntry entry = new BookingTimelineEntry(booking.getId(), booking.getItem().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+        boolean approved = StatusType.APPROVED.equals(booking.getStatus());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(entry, approved);
+                }
+            });
+        } else {
+            apply(entry, approved);
+        }
+    }
+
+    @Override
+    public void onItemDeleted(Long itemId) {
+        evict(itemId);
+    }
+
+    @Override
+    public void onUserDeleted(Long userId) {
+        evictAll(); // Booking User могли быть в индексе любого Item
+    }
+
+    public void evict(Long itemId) {
+        synchronized (timelines) {
+            generations.incrementAndGet(stripe(itemId));
+            timelines.remove(itemId);
+        }
+    }
+
+    public void evictAll() {
+        synchronized (timelines) {
+            evictions.incrementAndGet();
+            timelines.clear();
+        }
+    }
+
+    private void apply(BookingTimelineEntry entry, boolean approved) {
+        synchronized (timelines) {
+            generations.incrementAndGet(stripe(entry.getItemId()));
+            timelines.computeIfPresent(entry.getItemId(), (itemId, timeline) -> {
+                ItemTimeline updated = approved ? timeline.with(entry) : timeline.without(entry.getId());
+                return updated.size() > maxBookingsPerItem ? null : updated;
+            });
+        }
+    }
+
+    private Map<Long, ItemTimeline> load(List<Long> itemIds) { // возвращает только Item, оказавшиеся в индексе
+        long evictedAt = evictions.get();
+        long[] loadedAt = itemIds.stream().mapToLong(itemId -> generations.get(stripe(itemId))).toArray();
+        Map<Long, List<BookingTimelineEntry>> entries = bookingRepository
+                .findTimelineEntries(itemIds, StatusType.APPROVED)
+                .stream()
+                .collect(Collectors.groupingBy(BookingTimelineEntry::getItemId));
+        Map<Long, ItemTimeline> loaded = new HashMap<>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            Long itemId = itemIds.get(i);
+            ItemTimeline timeline = ItemTimeline.of(entries.getOrDefault(itemId, List.of()));
+            if (timeline.size() > maxBookingsPerItem) {
+                continue;
+            }
+            synchronized (timelines) {
+                if (evictions.get() == evictedAt && generations.get(stripe(itemId)) == loadedAt[i]) {
+                    loaded.put(itemId, timelines.computeIfAbsent(itemId, id -> timeline));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static int stripe(Long itemId) {
+        return Long.hashCode(itemId) & (GENERATION_STRIPES - 1);
+    }
+}
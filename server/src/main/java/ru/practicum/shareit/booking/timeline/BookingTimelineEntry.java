@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingTimelineEntry {
+    private final Long id;
+    private final Long itemId;
+    private final Long bookerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public BookingShortDto toShort() {
+        return BookingShortDto.builder()
+                .id(id)
+                .bookerId(bookerId)
+                .build();
+    }
+}
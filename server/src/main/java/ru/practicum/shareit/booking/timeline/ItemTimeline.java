@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок APPROVED бронирований одного Item, отсортированных по start.
+ * maxEndIndex[k] - индекс бронирования с наибольшим end среди первых k + 1, поэтому last и next
+ * находятся двоичным поиском за O(log n). Изменения создают новый снимок (copy-on-write).
+ */
+final class ItemTimeline {
+
+    private static final Comparator<BookingTimelineEntry> BY_START =
+            Comparator.comparing(BookingTimelineEntry::getStart).thenComparing(BookingTimelineEntry::getId);
+
+    private final BookingTimelineEntry[] byStart;
+    private final int[] maxEndIndex;
+
+    private ItemTimeline(List<BookingTimelineEntry> entries) {
+        entries.sort(BY_START);
+        byStart = entries.toArray(new BookingTimelineEntry[0]);
+        maxEndIndex = new int[byStart.length];
+        for (int i = 0; i < byStart.length; i++) {
+            maxEndIndex[i] = i > 0 && !byStart[i].getEnd().isAfter(byStart[maxEndIndex[i - 1]].getEnd())
+                    ? maxEndIndex[i - 1] : i;
+        }
+    }
+
+    static ItemTimeline of(Collection<BookingTimelineEntry> entries) {
+        return new ItemTimeline(new ArrayList<>(entries));
+    }
+
+    int size() {
+        return byStart.length;
+    }
+
+    ItemTimeline with(BookingTimelineEntry entry) {
+        List<BookingTimelineEntry> entries = new ArrayList<>(byStart.length + 1);
+        for (BookingTimelineEntry current : byStart) {
+            if (!current.getId().equals(entry.getId())) {
+                entries.add(current);
+            }
+        }
+        entries.add(entry);
+        return new ItemTimeline(entries);
+    }
+
+    ItemTimeline without(Long bookingId) {
+        List<BookingTimelineEntry> entries = new ArrayList<>(byStart.length);
+        for (BookingTimelineEntry current : byStart) {
+            if (!current.getId().equals(bookingId)) {
+                entries.add(current);
+            }
+        }
+        return entries.size() == byStart.length ? this : new ItemTimeline(entries);
+    }
+
+    BookingTimelineEntry last(LocalDateTime now) { // start < now, наибольший end
+        int low = 0;
+        int high = byStart.length; // первый индекс со start >= now
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byStart[mid].getStart().isBefore(now)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low == 0 ? null : byStart[maxEndIndex[low - 1]];
+    }
+
+    BookingTimelineEntry next(LocalDateTime now) { // start > now, наименьший start
+        int low = 0;
+        int high = byStart.length; // первый индекс со start > now
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (byStart[mid].getStart().isAfter(now)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low == byStart.length ? null : byStart[low];
+    }
+
+    LastNextBookings lastNext(LocalDateTime now) {
+        BookingTimelineEntry last = last(now);
+        BookingTimelineEntry next = next(now);
+        return new LastNextBookings(last == null ? null : last.toShort(), next == null ? null : next.toShort());
+    }
+}
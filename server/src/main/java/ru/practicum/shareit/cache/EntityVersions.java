@@ -0,0 +1,27 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.Collection;
+
+/**
+ * Рост версии (@Version) Item и ItemRequest, когда меняется то, что входит в их ответ, но хранится не в них самих
+ * (Comment, Item-ответы), - иначе не изменится ETag. Версия растёт через саму сущность (OPTIMISTIC_FORCE_INCREMENT
+ * при commit), а не UPDATE запросом: UPDATE запросом сбрасывает весь регион сущности в кэше второго уровня.
+ * Изменённая параллельно сущность отклоняет транзакцию - 409, как при обычном изменении.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityVersions {
+
+    private final EntityManager entityManager;
+    private final SecondLevelCache secondLevelCache;
+
+    public void increment(Collection<?> entities) {
+        entities.forEach(entity -> entityManager.lock(entity, LockModeType.OPTIMISTIC_FORCE_INCREMENT));
+        secondLevelCache.evict(entities); // новая версия в кэш второго уровня не попадает
+    }
+}
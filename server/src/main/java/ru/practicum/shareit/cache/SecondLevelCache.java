@@ -0,0 +1,70 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Сброс кэша второго уровня Hibernate после изменений, о которых Hibernate не знает: строки, удалённые каскадом
+ * в БД, остаются в регионах сущностей, а кэш запросов не видит изменения их таблиц; версия, увеличенная
+ * блокировкой OPTIMISTIC_FORCE_INCREMENT, в регион не попадает. При выключенном кэше
+ * (shareit.l2-cache.enabled=false) ничего не делает.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Сбрасывает после commit регионы Item и ItemRequest и кэш запросов - для удаления User, вместе с которым
+     * в БД удаляются его Item и ItemRequest.
+     */
+    public void evictItemsAndRequests() {
+        afterCommit(() -> {
+            entityManagerFactory.getCache().evict(Item.class);
+            entityManagerFactory.getCache().evict(ItemRequest.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        });
+    }
+
+    /**
+     * Сбрасывает после commit сущности, версия которых увеличена блокировкой OPTIMISTIC_FORCE_INCREMENT (см.
+     * EntityVersions), - иначе из кэша читается прежняя версия: устаревший ETag и отказ следующего изменения.
+     */
+    public void evict(Collection<?> entities) {
+        PersistenceUnitUtil persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        Map<Class<?>, List<Object>> ids = entities.stream().collect(Collectors.groupingBy(Hibernate::getClass,
+                Collectors.mapping(persistenceUnitUtil::getIdentifier, Collectors.toList())));
+        if (!ids.isEmpty()) {
+            afterCommit(() -> ids.forEach((entityClass, entityIds) ->
+                    entityIds.forEach(id -> entityManagerFactory.getCache().evict(entityClass, id))));
+        }
+    }
+
+    private static void afterCommit(Runnable eviction) { // до commit другая транзакция могла бы снова положить
+        // в кэш ещё не удалённые строки
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Кэш второго уровня Hibernate (JCache на Caffeine) для Item, User, ItemRequest и кэшируемых запросов.
+ * Включается свойством shareit.l2-cache.enabled=true, размер и TTL задаются отдельно для каждого региона.
+ * Счётчики hibernate.second.level.cache.requests и доля попаданий shareit.l2-cache.hit.ratio с тегом region
+ * доступны в /actuator/metrics.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.l2-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    private static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    private static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${shareit.l2-cache.items.max-size:10000}") long itemsMaxSize,
+            @Value("${shareit.l2-cache.items.ttl:10m}") Duration itemsTtl,
+            @Value("${shareit.l2-cache.users.max-size:10000}") long usersMaxSize,
+            @Value("${shareit.l2-cache.users.ttl:10m}") Duration usersTtl,
+            @Value("${shareit.l2-cache.requests.max-size:5000}") long requestsMaxSize,
+            @Value("${shareit.l2-cache.requests.ttl:10m}") Duration requestsTtl,
+            @Value("${shareit.l2-cache.query.max-size:5000}") long queryMaxSize,
+            @Value("${shareit.l2-cache.query.ttl:1m}") Duration queryTtl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("shareit:l2-cache:" + UUID.randomUUID()),
+                provider.getDefaultClassLoader()); // свой CacheManager на контекст - регионы не пересекаются
+        // между несколькими контекстами в одной JVM (тесты, бенчмарки)
+        cacheManager.createCache(Item.CACHE_REGION, region(itemsMaxSize, itemsTtl));
+        cacheManager.createCache(User.CACHE_REGION, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(ItemRequest.CACHE_REGION, region(requestsMaxSize, requestsTtl));
+        cacheManager.createCache(QUERY_REGION, region(queryMaxSize, queryTtl));
+        cacheManager.createCache(TIMESTAMPS_REGION, new CaffeineConfiguration<>()); // без вытеснения - иначе
+        // кэш запросов может вернуть результат, устаревший после изменения таблицы
+        log.info("Включен кэш второго уровня Hibernate.");
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail"); // все регионы созданы выше
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true); // для метрик по регионам
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : List.of(Item.CACHE_REGION, User.CACHE_REGION, ItemRequest.CACHE_REGION)) {
+                hitRatio(region, statistics::getDomainDataRegionStatistics).register(registry);
+            }
+            hitRatio(QUERY_REGION, statistics::getQueryRegionStatistics).register(registry);
+        };
+    }
+
+    private static Gauge.Builder<?> hitRatio(String region, Function<String, CacheRegionStatistics> statistics) {
+        return Gauge.builder("shareit.l2-cache.hit.ratio", () -> {
+                    CacheRegionStatistics regionStatistics = statistics.apply(region);
+                    long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+                    return requests == 0 ? 0 : (double) regionStatistics.getHitCount() / requests;
+                })
+                .tag("region", region)
+                .description("Доля попаданий в регион кэша второго уровня Hibernate");
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
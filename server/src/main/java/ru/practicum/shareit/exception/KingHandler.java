@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -31,6 +32,12 @@ public class KingHandler {
                 HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> optimisticLockingFailureException(final ObjectOptimisticLockingFailureException e) {
+        return new ResponseEntity<>(new ErrorResponse(String.valueOf(e.getClass()), // версия (@Version) изменилась
+                "Объект изменён параллельно, повторите запрос."), HttpStatus.CONFLICT); // с момента чтения
+    }
+
     @ExceptionHandler
     public ResponseEntity<ExceptionDto> handleUnsupportedStatusException(UnsupportedStatusException ex) {
         return new ResponseEntity<>(new ExceptionDto("Unknown state: UNSUPPORTED_STATUS"), HttpStatus.BAD_REQUEST);
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.execution;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ограничивает число одновременно обрабатываемых запросов размером пула соединений HikariCP: лишние запросы
+ * ждут разрешения в очереди FIFO (виртуальный поток при этом не занимает поток-носитель), а не в getConnection,
+ * где их оборвал бы connection-timeout. Соединение из-за open-in-view держится до конца запроса, поэтому
+ * разрешение выдаётся на весь запрос. Не дождавшиеся за max-wait получают 503. Потоковые ответы держат
+ * разрешение, пока пишется тело (соединение занято до конца async-обработки). Метрики: shareit.admission.wait,
+ * shareit.admission.waiting, shareit.admission.rejected.
+ */
+@Slf4j
+public class AdmissionLimiter implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionLimiter.class.getName() + ".permit";
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+    private final Timer wait;
+    private final Counter rejected;
+
+    public AdmissionLimiter(int permits, Duration maxWait, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(permits, true);
+        this.maxWait = maxWait;
+        this.wait = Timer.builder("shareit.admission.wait")
+                .description("Ожидание разрешения на обработку запроса")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("shareit.admission.rejected")
+                .description("Запросы, не дождавшиеся разрешения")
+                .register(meterRegistry);
+        Gauge.builder("shareit.admission.waiting", this.permits, Semaphore::getQueueLength)
+                .description("Запросы в очереди за разрешением")
+                .register(meterRegistry);
+        log.info("Одновременно обрабатывается не более {} запросов.", permits);
+    }
+
+    public static int poolSize(DataSource dataSource) { // размер пула HikariCP, 0 - пул не HikariCP
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) { // завершение потокового ответа - разрешение
+            return true; // уже выдано
+        }
+        long startedAt = System.nanoTime();
+        boolean acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        wait.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            log.info("Запрос {} {} не дождался разрешения за {}.", request.getMethod(), request.getRequestURI(),
+                    maxWait);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Сервер перегружен, повторите запрос.");
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new AtomicBoolean(true));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) { // разрешение возвращается по завершении async: ASYNC-диспетчеризация или обрыв
+        AtomicBoolean permit = (AtomicBoolean) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit == null) {
+            return;
+        }
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                release(permit);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                release(permit);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        AtomicBoolean permit = (AtomicBoolean) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permit != null) {
+            release(permit);
+        }
+    }
+
+    private void release(AtomicBoolean permit) {
+        if (permit.compareAndSet(true, false)) { // повторно разрешение не возвращается
+            permits.release();
+        }
+    }
+}
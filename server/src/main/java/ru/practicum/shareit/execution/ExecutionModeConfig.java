@@ -0,0 +1,78 @@
+package ru.practicum.shareit.execution;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Режим обработки запросов Tomcat (shareit.execution.mode): platform - пул потоков Tomcat
+ * (server.tomcat.threads.*), virtual - виртуальный поток на запрос (JDK 21+, сборка - профиль jdk21).
+ * Виртуальные потоки не ограничивают число одновременных запросов, поэтому в режиме virtual всегда включён
+ * {@link AdmissionLimiter}; в режиме platform - по shareit.execution.admission.enabled=true.
+ */
+@Slf4j
+@Configuration
+public class ExecutionModeConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "shareit.execution.mode", havingValue = "virtual")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null); // сборка остаётся на Java 11
+            log.info("Запросы обрабатываются в виртуальных потоках.");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("shareit.execution.mode=virtual требует JDK 21+, запущен JDK "
+                    + Runtime.version().feature() + ".", e);
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.execution.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Configuration
+    @ConditionalOnExpression("'${shareit.execution.mode:platform}' == 'virtual' "
+            + "or ${shareit.execution.admission.enabled:false}")
+    static class AdmissionConfig {
+
+        @Bean
+        public AdmissionLimiter admissionLimiter(DataSource dataSource, MeterRegistry meterRegistry,
+                @Value("${shareit.execution.admission.permits:0}") int permits, // 0 - по размеру пула HikariCP
+                @Value("${shareit.execution.admission.max-wait:30s}") Duration maxWait) {
+            int poolSize = AdmissionLimiter.poolSize(dataSource);
+            if (permits <= 0 && poolSize <= 0) {
+                throw new IllegalStateException("Пул соединений не HikariCP - задайте "
+                        + "shareit.execution.admission.permits.");
+            }
+            return new AdmissionLimiter(permits > 0 ? permits : poolSize, maxWait, meterRegistry);
+        }
+
+        @Bean
+        public WebMvcConfigurer admissionLimiterConfigurer(AdmissionLimiter admissionLimiter) {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addInterceptors(InterceptorRegistry registry) {
+                    registry.addInterceptor(admissionLimiter);
+                }
+            };
+        }
+    }
+}
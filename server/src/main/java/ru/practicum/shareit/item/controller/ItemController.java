@@ -5,13 +5,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.CommentIngestion;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
+import java.util.Optional;
 
 
 @Slf4j
@@ -21,6 +25,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final Optional<CommentIngestion> commentIngestion; // есть при shareit.comments.ingestion=async
 
     @PostMapping
     public ResponseEntity<ItemDto> itemCreate(@RequestBody ItemDto itemDto,
@@ -30,12 +35,25 @@ public class ItemController {
         return new ResponseEntity<>(itemService.create(itemDto, userOwnerId), HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ItemBatchResultDto> itemCreateBatch(@RequestBody List<ItemDto> itemDtos,
+            @RequestHeader(value = "X-Sharer-User-Id") Long userOwnerId) {
+        log.info("Получен POST запрос по эндпоинту /items/batch от User(Owner) c ID {} на добавление {} Item.",
+                userOwnerId, itemDtos.size());
+        return new ResponseEntity<>(itemService.createBatch(itemDtos, userOwnerId), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ItemResponseDto> getById(@PathVariable Long id,
-            @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+            @RequestHeader(value = "X-Sharer-User-Id") Long userId, WebRequest webRequest) {
         log.info("Получен GET запрос по эндпоинту /items/{} от User c ID {} на получение Item с ID {}.", id, userId,
                 id);
-        return new ResponseEntity<>(itemService.getById(id, userId), HttpStatus.OK);
+        Optional<String> eTag = itemService.getETag(id, userId);
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) { // 304 без построения ответа
+            log.info("Item с ID {} не изменилась.", id);
+            return null;
+        }
+        return new ResponseEntity<>(itemService.getById(id, userId), HttpStatus.OK); // ETag уже в заголовках
     }
 
     @GetMapping
@@ -84,6 +102,9 @@ public class ItemController {
             @RequestBody CommentDto commentDto) {
         log.info("Получен POST запрос по эндпоинту /items/{}/comment от User c ID {} на создание Comment {}.", itemId,
                 userId, commentDto);
+        if (commentIngestion.isPresent()) { // Comment сохранится позже, пакетом
+            return new ResponseEntity<>(commentIngestion.get().accept(commentDto, itemId, userId), HttpStatus.ACCEPTED);
+        }
         return new ResponseEntity<>(itemService.addComment(commentDto, itemId, userId), HttpStatus.OK);
     }
 
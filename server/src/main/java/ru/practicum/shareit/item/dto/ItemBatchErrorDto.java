@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@EqualsAndHashCode
+@NoArgsConstructor
+public class ItemBatchErrorDto {
+    private int index; // номер строки в запросе, начиная с 0
+    private String error;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@EqualsAndHashCode
+@NoArgsConstructor
+public class ItemBatchResultDto {
+    private List<ItemDto> created; // созданные Item в порядке строк запроса
+    private List<ItemBatchErrorDto> errors; // отклонённые строки - остальные созданы
+}
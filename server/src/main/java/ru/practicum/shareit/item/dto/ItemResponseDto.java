@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -41,4 +42,11 @@ public class ItemResponseDto {
                 .build();
     }
 
+    public static ItemResponseDto create(LastNextBookings bookings, Item item, List<Comment> comments) {
+        ItemResponseDto itemResponseDto = create(null, null, item, comments);
+        itemResponseDto.setLastBooking(bookings.getLastBooking());
+        itemResponseDto.setNextBooking(bookings.getNextBooking());
+        return itemResponseDto;
+    }
+
 }
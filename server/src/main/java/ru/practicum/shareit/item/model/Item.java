@@ -1,12 +1,18 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Item.CACHE_REGION)
 @Table(name = "items")
 @Data
 @Builder
@@ -16,8 +22,14 @@ import javax.persistence.*;
 @NoArgsConstructor
 public class Item {
 
+    public static final String CACHE_REGION = "items"; // регион кэша второго уровня
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "items_seq")
+    @GenericGenerator(name = "items_seq", strategy = "enhanced-sequence", parameters = { // ID выделяются блоками
+            @Parameter(name = "sequence_name", value = "items_seq"), // по increment_size за одно обращение
+            @Parameter(name = "increment_size", value = "50"), // к последовательности - иначе (IDENTITY)
+            @Parameter(name = "optimizer", value = "pooled-lo")}) // Hibernate не может группировать INSERT
     @Column(name = "id")
     private Long id;
     @Column(name = "name", length = 255, nullable = false)
@@ -31,5 +43,8 @@ public class Item {
     private User owner;
     @Column(name = "request_id")
     private Long requestId;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version; // растёт при изменении Item и его Comment - основа ETag GET /items/{id}
 
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemVersion {
+    private final Long version; // Item.version
+    private final Long ownerId; // от него зависит вид ответа: Owner видит last/next Booking
+}
@@ -1,12 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByItem_Id(Long itemId); // находит список всех комментариев для данного item_id
+
+    @Query("select c "
+            + "from Comment c "
+            + "join fetch c.author "
+            + "where c.item.id in ?1")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds); // все комментарии сразу для списка item_id
+    // вместе с авторами - одним запросом
 }
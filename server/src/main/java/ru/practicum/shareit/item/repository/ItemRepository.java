@@ -3,23 +3,55 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 
+import javax.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable); // все Item, принадлежат владельцу с заданным ID,
     // отсортированные по возрастанию их ID.
 
-    @Query("select it "
-            + "from Item it "
-            + "where it.available = true "
-            + "and (lower (it.name) like concat('%', lower(?1), '%') "
-            + "or lower (it.description) like concat('%', lower(?1), '%')) ")
-    List<Item> findByText(String text, Pageable pageable); // для поиска item по тексту (части запроса)
+    @Query(value = "SELECT * "
+            + "FROM items it "
+            + "WHERE it.available = true "
+            + "AND (lower(it.name) LIKE concat('%', lower(?1), '%') "
+            + "OR lower(it.description) LIKE concat('%', lower(?1), '%')) "
+            + "ORDER BY greatest(similarity(lower(it.name), lower(?1)), "
+            + "similarity(lower(it.description), lower(?1))) DESC, it.id", nativeQuery = true)
+    List<Item> findByTextRanked(String text, Pageable pageable); // поиск доступных Item по подстроке для
+    // PostgreSQL: like по триграммным GIN индексам (pg_trgm), более похожие Item выше
 
     void deleteItemByIdAndOwner_Id(long itemId, long userId); // удаление хозяином вещи своей вещи
 
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true")) // при
+    // включённом кэше второго уровня (shareit.l2-cache.enabled)
     List<Item> findAllByRequestIdOrderByIdAsc(Long requestId); // возвращает список Item по запросу ItemRequest
+
+    List<Item> findAllByRequestIdInOrderByIdAsc(Collection<Long> requestIds); // Item-ответы сразу на несколько
+    // ItemRequest одним запросом request_id IN (...)
+
+    @Query("select it.id from Item it")
+    List<Long> findIds(Pageable pageable); // только ID всех Item, постранично
+
+    @Query("select it.id from Item it where it.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId); // ID Item владельца - до их каскадного удаления вместе с ним
+
+    @Query("select distinct it.requestId from Item it where it.owner.id = ?1 and it.requestId is not null "
+            + "and it.requestId not in (select r.id from ItemRequest r where r.requestor.id = ?1)")
+    List<Long> findRequestIdsByOwnerId(Long ownerId); // чужие ItemRequest, на которые отвечали Item владельца -
+    // свои удаляются вместе с ним
+
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemVersion(I.version, I.owner.id) FROM Item I WHERE I.id = ?1")
+    Optional<ItemVersion> findVersionById(Long id); // версия и владелец Item без загрузки самой Item - для ETag
+
+    @Query("SELECT DISTINCT C.item FROM Comment C WHERE C.author.id = ?1 AND C.item.owner.id <> ?1")
+    List<Item> findAllCommentedBy(Long authorId); // Item с Comment автора - их ETag меняется при смене его имени
+    // и удалении (свои Item автор не бронирует и не комментирует, при удалении они удаляются вместе с ним)
 }
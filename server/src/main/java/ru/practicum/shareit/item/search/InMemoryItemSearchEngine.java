@@ -0,0 +1,168 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Встроенный инвертированный индекс по триграммам name и description для H2 и тестов.
+ * Кандидаты берутся пересечением списков триграмм запроса и затем проверяются на вхождение подстроки,
+ * поэтому результат совпадает с поиском через like. Изменения из транзакции применяются после её commit:
+ * откат не должен менять индекс.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        itemRepository.findAll().forEach(this::index);
+        log.info("Индекс поиска Item построен: {} документов.", documents.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = text.toLowerCase();
+        Collection<Long> candidates = query.length() < GRAM_LENGTH ? documents.keySet() : intersect(grams(query));
+
+        List<Long> ids = candidates.stream()
+                .filter(id -> {
+                    Document document = documents.get(id);
+                    return document != null && document.matches(query);
+                })
+                .sorted()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream() // удалённые одновременно с поиском
+                // Item отсеиваются здесь
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream().map(items::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        afterCommit(() -> apply(item)); // поля Item читаются после commit - уже с новой version
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> removeDocument(itemId));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private synchronized void apply(Item item) {
+        Document current = documents.get(item.getId());
+        if (current != null && current.version != null && item.getVersion() != null
+                && current.version > item.getVersion()) { // afterCommit более поздней транзакции уже выполнен
+            return;
+        }
+        removeDocument(item.getId());
+        Document document = new Document(lower(item.getName()), lower(item.getDescription()),
+                Boolean.TRUE.equals(item.getAvailable()), item.getVersion());
+        documents.put(item.getId(), document);
+        document.grams().forEach(gram -> postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet())
+                .add(item.getId()));
+    }
+
+    private synchronized void removeDocument(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        document.grams().forEach(gram -> postings.computeIfPresent(gram, (g, ids) -> {
+            ids.remove(itemId);
+            return ids.isEmpty() ? null : ids;
+        }));
+    }
+
+    private Collection<Long> intersect(Set<String> grams) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Set<Long>> others = lists.subList(1, lists.size());
+        return lists.get(0).stream()
+                .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+                .collect(Collectors.toList());
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    private static class Document {
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Long version;
+
+        Document(String name, String description, boolean available, Long version) {
+            this.name = name;
+            this.description = description;
+            this.available = available;
+            this.version = version;
+        }
+
+        boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchEngine.grams(name);
+            grams.addAll(InMemoryItemSearchEngine.grams(description));
+            return grams;
+        }
+    }
+}
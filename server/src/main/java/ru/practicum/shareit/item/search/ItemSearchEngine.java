@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable pageable); // доступные (available) Item, в name или description которых
+    // встречается text (без учёта регистра), постранично
+
+    default void index(Item item) { // вызывается в транзакции создания и обновления Item; реализация
+        // с собственным индексом применяет изменение после commit
+    }
+
+    default void remove(Long itemId) { // вызывается в транзакции удаления Item, в т.ч. каскадного при удалении
+        // владельца
+    }
+}
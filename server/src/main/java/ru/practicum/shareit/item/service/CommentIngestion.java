@@ -0,0 +1,209 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.model.BookerItemEnd;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.EntityVersions;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Асинхронный приём Comment (shareit.comments.ingestion=async): запрос только проверяет автора и кладёт Comment
+ * в ограниченную очередь (ответ 202 без id), при переполнении очереди - 429. Фоновый поток забирает Comment
+ * пакетами до batch-size, проверяет право на отзыв и существование Item одним запросом на пакет и сохраняет
+ * пакет в одной транзакции. Если транзакция пакета не прошла, Comment пакета сохраняются по одному, и отклоняется
+ * только ошибочный. Отклонённые Comment только пишутся в лог. Размер очереди - shareit.comments.queue.size,
+ * итоги - shareit.comments.ingested с тегом result в /actuator/metrics.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.comments.ingestion", havingValue = "async")
+public class CommentIngestion implements DisposableBean {
+
+    private static final long POLL_MILLIS = 200;
+    private static final long SHUTDOWN_MILLIS = 10_000;
+    private static final int TEXT_MAX_LENGTH = 512; // размер столбца comments.text
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final UserCache userCache;
+    private final EntityVersions entityVersions;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final BlockingQueue<PendingComment> queue;
+    private final Counter saved;
+    private final Counter rejected;
+    private final Counter throttled;
+
+    private final Thread worker = new Thread(this::run, "comment-ingestion");
+    private volatile boolean running = true;
+
+    public CommentIngestion(ItemRepository itemRepository, BookingRepository bookingRepository,
+            CommentRepository commentRepository, UserCache userCache, EntityVersions entityVersions,
+            TransactionOperations transactionOperations, MeterRegistry meterRegistry,
+            @Value("${shareit.comments.queue-capacity:10000}") int queueCapacity,
+            @Value("${shareit.comments.batch-size:100}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.userCache = userCache;
+        this.entityVersions = entityVersions;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("shareit.comments.queue.size", queue, Collection::size)
+                .description("Comment, ожидающие сохранения")
+                .register(meterRegistry);
+        this.saved = ingested(meterRegistry, "saved");
+        this.rejected = ingested(meterRegistry, "rejected");
+        this.throttled = ingested(meterRegistry, "throttled");
+    }
+
+    private static Counter ingested(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit.comments.ingested").tag("result", result).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Запущен асинхронный приём Comment.");
+    }
+
+    public CommentResponseDto accept(CommentDto commentDto, long itemId, long userId) {
+        if (commentDto.getText() != null && commentDto.getText().length() > TEXT_MAX_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Длина Comment не должна превышать " + TEXT_MAX_LENGTH + " символов.");
+        }
+        Comment comment = CommentMapper.dtoToComment(commentDto);
+        comment.setAuthor(userCache.find(userId).orElseThrow(() -> new EntityNotFoundException("Нет такого User.")));
+        if (!queue.offer(new PendingComment(comment, itemId))) {
+            throttled.increment();
+            log.info("Очередь Comment переполнена, Comment для Item c id = {} от User с id = {} не принят.",
+                    itemId, userId);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Слишком много Comment в обработке, повторите запрос позже.");
+        }
+        return CommentMapper.toResponseDto(comment);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException { // оставшиеся в очереди Comment сохраняются до остановки
+        running = false;
+        worker.join(SHUTDOWN_MILLIS);
+    }
+
+    private void run() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<PendingComment> batch) {
+        try {
+            int count = Objects.requireNonNull(transactionOperations.execute(status -> save(batch)));
+            saved.increment(count);
+            rejected.increment(batch.size() - count);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                PendingComment pending = batch.get(0);
+                rejected.increment();
+                log.error("Не удалось сохранить Comment для Item c id = {} от User с id = {}.",
+                        pending.getItemId(), pending.getComment().getAuthor().getId(), e);
+                return;
+            }
+            log.warn("Не удалось сохранить пакет из {} Comment, Comment сохраняются по одному.", batch.size(), e);
+            batch.forEach(pending -> process(List.of(pending)));
+        }
+    }
+
+    private int save(List<PendingComment> batch) {
+        Set<Long> itemIds = batch.stream().map(PendingComment::getItemId).collect(Collectors.toSet());
+        Set<Long> authorIds = batch.stream().map(pending -> pending.getComment().getAuthor().getId())
+                .collect(Collectors.toSet());
+        LocalDateTime latest = batch.stream().map(pending -> pending.getComment().getCreated())
+                .max(LocalDateTime::compareTo).orElseThrow();
+        Map<List<Long>, LocalDateTime> firstEnds = bookingRepository.findFirstEnds(authorIds, itemIds, latest)
+                .stream()
+                .collect(Collectors.toMap(end -> List.of(end.getBookerId(), end.getItemId()), BookerItemEnd::getEnd));
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Comment> comments = new ArrayList<>(batch.size());
+        for (PendingComment pending : batch) {
+            Comment comment = pending.getComment();
+            comment.setId(null); // id мог быть выдан в откатившейся транзакции пакета
+            User author = comment.getAuthor();
+            LocalDateTime firstEnd = firstEnds.get(List.of(author.getId(), pending.getItemId()));
+            Item item = items.get(pending.getItemId());
+            if (firstEnd == null || item == null || !firstEnd.isBefore(comment.getCreated())) { // как при
+                // синхронном приёме: Booking должен завершиться до отправки Comment
+                log.info("Comment для Item c id = {} от User с id = {} отклонён: нет завершённого Booking.",
+                        pending.getItemId(), author.getId());
+                continue;
+            }
+            comment.setItem(item);
+            comments.add(comment);
+        }
+        if (comments.isEmpty()) {
+            return 0;
+        }
+        commentRepository.saveAll(comments);
+        entityVersions.increment(comments.stream().map(Comment::getItem)
+                .collect(Collectors.toSet())); // Comment входят в ответ GET /items/{id} - меняется его ETag
+        log.info("Сохранено {} Comment из пакета {}.", comments.size(), batch.size());
+        return comments.size();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class PendingComment {
+        private final Comment comment;
+        private final Long itemId;
+    }
+}
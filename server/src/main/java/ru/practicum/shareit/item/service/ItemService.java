@@ -2,19 +2,26 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
 
     ItemDto create(ItemDto itemDto, Long userOwnerId);
 
+    ItemBatchResultDto createBatch(List<ItemDto> itemDtos, Long userOwnerId);
+
     ItemDto update(Long id, ItemDto itemDto, Long userOwnerId);
 
     ItemResponseDto getById(Long id, Long userId);
 
+    Optional<String> getETag(Long id, Long userId); // ETag ответа getById без его построения; пусто - если
+    // ответ нельзя проверить без построения
+
     List<ItemResponseDto> getAllByOwner(int from, int size, Long userOwnerId);
 
     void deleteById(Long id, Long userOwnerId);
@@ -8,24 +8,34 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+import ru.practicum.shareit.booking.lastnext.LastNextBookingsSource;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.StatusType;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.EntityVersions;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchErrorDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,27 +45,95 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemRequestRepository itemRequestRepository;
+    private final LastNextBookingsSource lastNextBookings;
+    private final EntityVersions entityVersions;
 
     private static final String USER_NOT_FOUND_ERROR = "Нет такого User.";
     private static final String ITEM_NOT_FOUND_ERROR = "Нет такого Item.";
+    private static final int NAME_MAX_LENGTH = 255; // размеры столбцов items.name и items.description
+    private static final int DESCRIPTION_MAX_LENGTH = 512;
 
     @Override
     @Transactional
     public ItemDto create(ItemDto itemDto, Long userOwnerId) {
         Item item = ItemMapper.dtoToItem(itemDto);
         item.setOwner(
-                userRepository.findById(userOwnerId).orElseThrow(() -> {
+                userCache.find(userOwnerId).orElseThrow(() -> {
                     log.info(USER_NOT_FOUND_ERROR);
                     return new EntityNotFoundException(USER_NOT_FOUND_ERROR);
                 }));
         item = itemRepository.save(item);
+        itemSearchEngine.index(item);
+        incrementRequestVersions(item);
         log.info("Создана вещь c id = {} ", item.getId());
         return ItemMapper.itemToDto(item);
     }
 
+    @Override
+    @Transactional
+    public ItemBatchResultDto createBatch(List<ItemDto> itemDtos, Long userOwnerId) {
+        User owner = userCache.find(userOwnerId).orElseThrow(() -> {
+            log.info(USER_NOT_FOUND_ERROR);
+            return new EntityNotFoundException(USER_NOT_FOUND_ERROR);
+        });
+        Set<Long> requestIds = itemDtos.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty() ? Set.of()
+                : new HashSet<>(itemRequestRepository.findExistingIds(requestIds));
+
+        List<Item> items = new ArrayList<>();
+        List<ItemBatchErrorDto> errors = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) { // строка с ошибкой пропускается, остальные создаются
+            String error = validate(itemDtos.get(i), existingRequestIds);
+            if (error != null) {
+                errors.add(new ItemBatchErrorDto(i, error));
+                continue;
+            }
+            Item item = ItemMapper.dtoToItem(itemDtos.get(i));
+            item.setId(null);
+            item.setOwner(owner);
+            items.add(item);
+        }
+        items = itemRepository.saveAll(items); // INSERT уходят пачками hibernate.jdbc.batch_size при flush
+        items.forEach(itemSearchEngine::index);
+        incrementRequestVersions(items.toArray(Item[]::new));
+        log.info("User c id = {} создал {} Item, отклонено строк: {}.", userOwnerId, items.size(), errors.size());
+        return new ItemBatchResultDto(ItemMapper.listItemsToListDto(items), errors);
+    }
+
+    private static String validate(ItemDto itemDto, Set<Long> existingRequestIds) {
+        if (itemDto == null) {
+            return "Пустая строка.";
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Не задано name.";
+        }
+        if (itemDto.getName().length() > NAME_MAX_LENGTH) {
+            return "name длиннее " + NAME_MAX_LENGTH + " символов.";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Не задано description.";
+        }
+        if (itemDto.getDescription().length() > DESCRIPTION_MAX_LENGTH) {
+            return "description длиннее " + DESCRIPTION_MAX_LENGTH + " символов.";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Не задано available.";
+        }
+        if (itemDto.getRequestId() != null && !existingRequestIds.contains(itemDto.getRequestId())) {
+            return "Нет такого ItemRequest.";
+        }
+        return null;
+    }
+
     @Override
     @Transactional
     public ItemDto update(Long id, ItemDto itemDto, Long userOwnerId) {
@@ -74,6 +152,8 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
         itemRepository.save(item);
+        itemSearchEngine.index(item);
+        incrementRequestVersions(item);
         log.info("Item с ID {} обновлён.", id);
         return ItemMapper.itemToDto(item);
     }
@@ -82,13 +162,17 @@ public class ItemServiceImpl implements ItemService {
     public ItemResponseDto getById(Long id, Long userId) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(ITEM_NOT_FOUND_ERROR));
         List<Comment> comments = commentRepository.findAllByItem_Id(id);
-        Booking lastBooking = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(item.getId(),
-                LocalDateTime.now(), StatusType.APPROVED);
-        Booking nextBooking = bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(item.getId(),
-                LocalDateTime.now(), StatusType.APPROVED);
 
         if (item.getOwner().getId().equals(userId)) {  // случай для User Owner - с данными бронивани и комментариями
-            ItemResponseDto itemResponseDto = ItemResponseDto.create(lastBooking, nextBooking, item, comments);
+            LocalDateTime now = LocalDateTime.now();
+            ItemResponseDto itemResponseDto = lastNextBookings.find(item.getId(), now)
+                    .map(bookings -> ItemResponseDto.create(bookings, item, comments))
+                    .orElseGet(() -> ItemResponseDto.create(
+                            bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(item.getId(),
+                                    now, StatusType.APPROVED),
+                            bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(item.getId(),
+                                    now, StatusType.APPROVED),
+                            item, comments));
             log.info("Item с ID {} получена для User Owner с ID {}.", id, userId);
             return itemResponseDto;
         }
@@ -99,20 +183,63 @@ public class ItemServiceImpl implements ItemService {
         return itemResponseDto;
     }
 
+    @Override
+    public Optional<String> getETag(Long id, Long userId) {
+        ItemVersion item = itemRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException(ITEM_NOT_FOUND_ERROR));
+        if (!item.getOwnerId().equals(userId)) {
+            return Optional.of("\"" + item.getVersion() + "\"");
+        }
+        return lastNextBookings.find(id, LocalDateTime.now()) // Owner видит ещё и last/next Booking, которые
+                .map(bookings -> "\"" + item.getVersion() + "-" // меняются и со временем: их ID - из источника,
+                        + bookingId(bookings.getLastBooking()) + "-" // без них ETag не строится
+                        + bookingId(bookings.getNextBooking()) + "\"");
+    }
+
+    private static long bookingId(BookingShortDto booking) {
+        return booking == null ? 0 : booking.getId();
+    }
+
     @Override
     public List<ItemResponseDto> getAllByOwner(int from, int size, Long userOwnerId) {
-        userRepository.findById(userOwnerId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
+        userCache.find(userOwnerId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
         Pageable pageable = PageRequest.of(from == 0 ? 0 : (from / size), size);
 
-        List<ItemResponseDto> itemResponseDtos = itemRepository.findAllByOwnerIdOrderByIdAsc(userOwnerId, pageable)
-                .stream()
+        List<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(userOwnerId, pageable);
+        if (items.isEmpty()) {
+            log.info("Получен пустой список Item для UserOwner с ID {}.", userOwnerId);
+            return List.of();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        Map<Long, List<Comment>> commentsByItem = commentRepository.findAllByItemIdIn(itemIds)  // один запрос
+                .stream()                                                                   // на всю страницу
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, LastNextBookings> found = lastNextBookings.findAll(itemIds, now);
+        List<Long> notFound = itemIds.stream() // last/next остальных Item - одним запросом к bookings
+                .filter(itemId -> !found.containsKey(itemId))
+                .collect(Collectors.toList());
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        if (!notFound.isEmpty()) {
+            for (Booking booking : bookingRepository.findLastAndNextApprovedByItemIds(notFound, now)) {
+                if (booking.getStart().isBefore(now)) {
+                    lastBookings.put(booking.getItem().getId(), booking);
+                } else {
+                    nextBookings.put(booking.getItem().getId(), booking);
+                }
+            }
+        }
+
+        List<ItemResponseDto> itemResponseDtos = items.stream()
                 .map(item -> {
-                    List<Comment> comments = commentRepository.findAllByItem_Id(item.getId());
-                    Booking lastBooking = bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
-                            item.getId(), LocalDateTime.now(), StatusType.APPROVED);
-                    Booking nextBooking = bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                            item.getId(), LocalDateTime.now(), StatusType.APPROVED);
-                    return ItemResponseDto.create(lastBooking, nextBooking, item, comments);
+                    List<Comment> comments = commentsByItem.getOrDefault(item.getId(), List.of());
+                    LastNextBookings bookings = found.get(item.getId());
+                    return bookings != null ? ItemResponseDto.create(bookings, item, comments)
+                            : ItemResponseDto.create(lastBookings.get(item.getId()), nextBookings.get(item.getId()),
+                                    item, comments);
                 })
                 .collect(Collectors.toList());
 
@@ -121,10 +248,11 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public void deleteById(Long id, Long userOwnerId) {
         Item item = itemRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(ITEM_NOT_FOUND_ERROR));
 
-        if (!userRepository.existsById(userOwnerId)) {
+        if (!userCache.exists(userOwnerId)) {
             throw new EntityNotFoundException(USER_NOT_FOUND_ERROR);
         }
         if (!item.getOwner().getId().equals(userOwnerId)) {
@@ -135,12 +263,26 @@ public class ItemServiceImpl implements ItemService {
         if (itemRepository.existsById(id)) {
             log.info("Item c ID {} удалён UserOwner c ID {}.", id, userOwnerId);
             itemRepository.deleteItemByIdAndOwner_Id(id, userOwnerId);
+            itemSearchEngine.remove(id);
+            lastNextBookings.onItemDeleted(id);
+            incrementRequestVersions(item);
+        }
+    }
+
+    private void incrementRequestVersions(Item... items) { // Item-ответы входят в GET /requests/{id} - его ETag
+        // должен измениться
+        Set<Long> requestIds = Arrays.stream(items)
+                .map(Item::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!requestIds.isEmpty()) {
+            entityVersions.increment(itemRequestRepository.findAllById(requestIds));
         }
     }
 
     @Override
     public List<ItemDto> search(int from, int size, String text, Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
+        userCache.find(userId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
 
         if (text == null || text.isBlank()) {
             log.info("Получен пустой лист поиска по запросу User ID {}.", userId);
@@ -149,7 +291,7 @@ public class ItemServiceImpl implements ItemService {
 
         Pageable pageable = PageRequest.of(from == 0 ? 0 : (from / size), size);
 
-        List<Item> items = itemRepository.findByText(text, pageable);
+        List<Item> items = itemSearchEngine.search(text, pageable);
         log.info("Получен список всех Item  по запросу '{} 'для User с ID {}.", text, userId);
         return ItemMapper.listItemsToListDto(items);
     }
@@ -158,16 +300,18 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public CommentResponseDto addComment(CommentDto commentDto, long itemId, long userId) {
 
-        if (bookingRepository.findAllByBooker_IdAndItem_IdAndEndBefore(userId, itemId, LocalDateTime.now()).isEmpty()) {
+        if (!bookingRepository.existsByBooker_IdAndItem_IdAndEndBefore(userId, itemId, LocalDateTime.now())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Оставлять Comment может только User, у которого есть завершённый Booking для данного Item");
         }
 
         Comment comment = CommentMapper.dtoToComment(commentDto);
         comment.setAuthor(
-                userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException("Нет такого User.")));
+                userCache.find(userId).orElseThrow(() -> new EntityNotFoundException("Нет такого User.")));
         comment.setItem(
                 itemRepository.findById(itemId).orElseThrow(() -> new EntityNotFoundException("Нет такого Item.")));
+        entityVersions.increment(List.of(comment.getItem())); // Comment входит в ответ GET /items/{id} - меняется
+        // его ETag
         comment = commentRepository.save(comment);
         log.info("Добавлен Comment для Item c id = {} от User с id = {}",
                 comment.getItem().getId(), comment.getAuthor().getId());
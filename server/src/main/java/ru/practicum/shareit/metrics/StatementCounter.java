@@ -0,0 +1,35 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы, которые Hibernate готовит в текущем потоке между start() и stop(). Пакетная вставка
+ * (hibernate.jdbc.batch_size) считается одним запросом - как и в Statistics.getPrepareStatementCount().
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql; // SQL не меняется
+    }
+
+    public void start() {
+        COUNT.set(new int[1]);
+    }
+
+    public boolean isStarted() {
+        return COUNT.get() != null;
+    }
+
+    public int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
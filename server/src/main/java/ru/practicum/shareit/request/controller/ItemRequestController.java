@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -49,9 +50,13 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestResponseDto> getById(@PathVariable long requestId,
-            @RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+            @RequestHeader(value = "X-Sharer-User-Id") Long userId, WebRequest webRequest) {
         log.info("Получен GET запрос по эндпоинту /requests/{} на получение ItemRequest c ID {} для User с ID {}.",
                 requestId, requestId, userId);
+        if (webRequest.checkNotModified(itemRequestService.getETag(requestId, userId))) { // 304 без построения ответа
+            log.info("ItemRequest с ID {} не изменился.", requestId);
+            return null;
+        }
         return new ResponseEntity<>(itemRequestService.getById(requestId, userId), HttpStatus.OK);
     }
 }
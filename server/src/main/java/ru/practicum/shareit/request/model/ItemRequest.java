@@ -1,12 +1,16 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ItemRequest.CACHE_REGION)
 @Table(name = "requests")
 @Builder
 @Getter
@@ -15,6 +19,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 public class ItemRequest {
+
+    public static final String CACHE_REGION = "requests"; // регион кэша второго уровня
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column
@@ -26,4 +33,7 @@ public class ItemRequest {
     private User requestor; // пользователь, создавший запрос;
     @Column
     private LocalDateTime created; // дата и время создания запроса.
+    @Version
+    @Column(nullable = false)
+    private Long version; // растёт при изменении Item-ответов на запрос - основа ETag GET /requests/{id}
 }
@@ -1,21 +1,25 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequestor_idOrderByCreatedAsc(Long userId); // возвращает список запросов конкретного
     // пользователя отсортированных по дате создания (по возрастанию)
 
-    Page<ItemRequest> findAllByRequestor_IdNotIn(Collection<Long> ownerId, Pageable pageable); // возвращает Page с параметрами
-    // заданными Pageable по всем пользователям
-
+    List<ItemRequest> findAllByRequestor_IdNot(Long userId, Pageable pageable); // страница запросов всех остальных
+    // пользователей с параметрами заданными Pageable - List, а не Page, без лишнего запроса count
 
+    @Query("SELECT R.id FROM ItemRequest R WHERE R.id IN ?1")
+    List<Long> findExistingIds(Collection<Long> ids); // какие из ID ItemRequest существуют
 
+    @Query("SELECT R.version FROM ItemRequest R WHERE R.id = ?1")
+    Optional<Long> findVersionById(Long id); // версия ItemRequest без загрузки - для ETag
 }
@@ -15,4 +15,6 @@ public interface ItemRequestService {
 
     ItemRequestResponseDto getById(Long requestId, Long userId);
 
+    String getETag(Long requestId, Long userId); // ETag ответа getById без его построения
+
 }
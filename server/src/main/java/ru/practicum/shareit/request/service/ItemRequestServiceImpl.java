@@ -10,16 +10,18 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,7 +32,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
     private static final String USER_NOT_FOUND_ERROR = "Нет такого User.";
 
@@ -38,7 +40,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional
     public ItemRequestDto create(ItemRequestDto itemRequestDto, Long userId) {
         ItemRequest itemRequest = ItemRequestMapper.dtoToItemRequest(itemRequestDto);
-        itemRequest.setRequestor(userRepository.findById(userId).orElseThrow(() -> {
+        itemRequest.setRequestor(userCache.find(userId).orElseThrow(() -> {
             log.info(USER_NOT_FOUND_ERROR);
             return new EntityNotFoundException(USER_NOT_FOUND_ERROR);
         }));
@@ -50,19 +52,15 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestResponseDto> getAllForRequestor(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
+        userCache.find(userId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
 
-        if (itemRequestRepository.findAllByRequestor_idOrderByCreatedAsc(userId).isEmpty()) {
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestor_idOrderByCreatedAsc(userId);
+        if (itemRequests.isEmpty()) {
             log.info("Получен пустой список ItemRequest для User c ID {} - у него нет запросов.", userId);
             return List.of();
         }
 
-        List<ItemRequestResponseDto> itemRequestResponseDtos
-                = itemRequestRepository.findAllByRequestor_idOrderByCreatedAsc(userId)
-                .stream()
-                .map(a -> ItemRequestResponseDto.create(a, ItemMapper.listItemsToListResponseDto(
-                        itemRepository.findAllByRequestIdOrderByIdAsc(a.getRequestor().getId()))))
-                .collect(Collectors.toList());
+        List<ItemRequestResponseDto> itemRequestResponseDtos = withItems(itemRequests);
 
         log.info("Получен список ItemRequest вместе с данными об ответах на них для User c ID {}.", userId);
         return itemRequestResponseDtos;
@@ -70,22 +68,19 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestResponseDto> getAllRequests(int from, int size, long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
+        userCache.find(userId).orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_ERROR));
 
-        Pageable pageable = PageRequest.of(from, size, Sort.by(Sort.Direction.DESC, "created"));
+        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"));
 
-        List<ItemRequestResponseDto> itemResponseDtos = (itemRequestRepository.findAllByRequestor_IdNotIn(
-                List.of(userId), pageable).getContent()).stream()
-                .map(a -> ItemRequestResponseDto.create(a, ItemMapper.listItemsToListResponseDto(
-                        itemRepository.findAllByRequestIdOrderByIdAsc(a.getId()))))
-                .collect(Collectors.toList());
+        List<ItemRequestResponseDto> itemResponseDtos = withItems(
+                itemRequestRepository.findAllByRequestor_IdNot(userId, pageable));
         log.info("Получен полный список ItemRequest по запросу от User c ID {}.", userId);
         return itemResponseDtos;
     }
 
     @Override
     public ItemRequestResponseDto getById(Long requestId, Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> {
+        userCache.find(userId).orElseThrow(() -> {
             log.info(USER_NOT_FOUND_ERROR);
             return new EntityNotFoundException(USER_NOT_FOUND_ERROR);
         });
@@ -100,5 +95,29 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestResponseDto.create(itemRequest, items);
     }
 
+    @Override
+    public String getETag(Long requestId, Long userId) {
+        if (!userCache.exists(userId)) {
+            log.info(USER_NOT_FOUND_ERROR);
+            throw new EntityNotFoundException(USER_NOT_FOUND_ERROR);
+        }
+        return itemRequestRepository.findVersionById(requestId)
+                .map(version -> "\"" + version + "\"")
+                .orElseThrow(() -> new EntityNotFoundException("Нет такого ItemRequest."));
+    }
 
+    private List<ItemRequestResponseDto> withItems(List<ItemRequest> itemRequests) { // ответы на все ItemRequest
+        // страницы одним запросом - число запросов к БД не зависит от размера страницы
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemResponseDto>> itemsByRequestId = itemRepository.findAllByRequestIdInOrderByIdAsc(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(ItemMapper::toResposeItem, Collectors.toList())));
+        return itemRequests.stream()
+                .map(a -> ItemRequestResponseDto.create(a, itemsByRequestId.getOrDefault(a.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
 }
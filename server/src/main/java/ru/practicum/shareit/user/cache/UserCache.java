@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Read-through кэш User перед UserRepository для проверки заголовка X-Sharer-User-Id. Хранятся только
+ * существующие User (отсутствие не кэшируется), вытеснение по размеру и TTL. Наружу отдаются копии -
+ * detached-сущности, которые можно ставить в связи (owner, booker, author, requestor) новых сущностей.
+ * Метрики cache.gets/cache.puts/cache.evictions с тегом cache=users доступны в /actuator/metrics.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "users";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> cache;
+
+    public UserCache(UserRepository userRepository,
+            @Value("${shareit.user-cache.max-size:10000}") long maxSize,
+            @Value("${shareit.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> find(Long userId) {
+        User user = cache.get(userId, id -> userRepository.findById(id)
+                .map(UserCache::copy)
+                .orElse(null));
+        return Optional.ofNullable(user).map(UserCache::copy);
+    }
+
+    public boolean exists(Long userId) {
+        return find(userId).isPresent();
+    }
+
+    public void evict(Long userId) { // сразу и повторно после завершения транзакции - иначе конкурентный
+        // запрос успеет вернуть в кэш версию User, прочитанную до commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+        cache.invalidate(userId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail());
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Table(name = "users")
 @Getter
 @Setter
@@ -14,6 +18,8 @@ import javax.persistence.*;
 @ToString
 @NoArgsConstructor
 public class User {
+    public static final String CACHE_REGION = "users"; // регион кэша второго уровня
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -5,8 +5,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.lastnext.LastNextBookingsSource;
+import ru.practicum.shareit.cache.EntityVersions;
+import ru.practicum.shareit.cache.SecondLevelCache;
 import ru.practicum.shareit.exception.EmailDuplicateException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -22,6 +29,13 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final LastNextBookingsSource lastNextBookings;
+    private final UserCache userCache;
+    private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemRequestRepository itemRequestRepository;
+    private final SecondLevelCache secondLevelCache;
+    private final EntityVersions entityVersions;
 
     @Transactional
     @Override
@@ -40,12 +54,16 @@ public class UserServiceImpl implements UserService {
         try {
             User user = UserMapper.dtoToUser(getById(id));
             if (userDto.getName() != null && !userDto.getName().isBlank()) {
+                if (!userDto.getName().equals(user.getName())) { // имя автора входит в Comment ответа
+                    entityVersions.increment(itemRepository.findAllCommentedBy(id)); // GET /items/{id} - ETag
+                }
                 user.setName(userDto.getName());
             }
             if (userDto.getEmail() != null && !userDto.getEmail().isBlank()) {
                 user.setEmail(userDto.getEmail());
             }
 
+            userCache.evict(id);
             log.info("Обновлен пользователь c id = {}.", user.getId());
             return UserMapper.userToDto(userRepository.saveAndFlush(user));
         } catch (DataIntegrityViolationException e) {
@@ -55,7 +73,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto getById(Long id) {
-        Optional<User> user = userRepository.findById(id);
+        Optional<User> user = userCache.find(id);
         if (user.isPresent()) {
             log.info("User c ID {} получен.", id);
             return UserMapper.userToDto(user.get());
@@ -75,11 +93,22 @@ public class UserServiceImpl implements UserService {
     @Transactional
     @Override
     public void deleteById(Long id) {
-        if (!userRepository.existsById(id)) {
+        if (!userCache.exists(id)) {
             log.info("User c ID {} не найден.", id);
             throw new EntityNotFoundException("User не найден");
         }
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(id); // Item удаляются каскадом в БД
+        entityVersions.increment(itemRepository.findAllCommentedBy(id)); // и Comment User к чужим Item -
+        // меняется ETag GET /items/{id}
+        List<Long> requestIds = itemRepository.findRequestIdsByOwnerId(id); // Item-ответы входят
+        if (!requestIds.isEmpty()) { // в GET /requests/{id}
+            entityVersions.increment(itemRequestRepository.findAllById(requestIds));
+        }
         userRepository.deleteById(id);
+        itemIds.forEach(itemSearchEngine::remove);
+        userCache.evict(id);
+        secondLevelCache.evictItemsAndRequests(); // Item и ItemRequest User удалены каскадом в БД
+        lastNextBookings.onUserDeleted(id); // бронирования User удалены каскадом в БД
         log.info("User c ID {} удалён.", id);
     }
 }
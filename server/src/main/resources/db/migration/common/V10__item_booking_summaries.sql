@@ -0,0 +1,16 @@
+-- Сводка last/next APPROVED Booking по Item (BookingSummary): обновляется при confirm и фоновой задачей.
+-- Строки добавляет и пересчитывает задача; refreshed_at IS NULL - строка ещё не рассчитана
+create TABLE IF NOT EXISTS item_booking_summaries
+(
+    item_id BIGINT PRIMARY KEY REFERENCES items(id) ON delete CASCADE,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_end TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    refreshed_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+-- строки, которые пора сдвинуть вперёд: next Booking уже начался
+create INDEX IF NOT EXISTS idx_item_booking_summaries_next_start ON item_booking_summaries (next_start);
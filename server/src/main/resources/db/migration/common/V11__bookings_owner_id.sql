@@ -0,0 +1,10 @@
+-- bookings.owner_id: владелец Item, денормализован - списки бронирований Owner без соединения с items
+ALTER TABLE bookings ADD COLUMN owner_id BIGINT;
+UPDATE bookings SET owner_id = (SELECT I.owner_id FROM items I WHERE I.id = bookings.item_id);
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+-- bookings: списки и seek-страницы Owner (BookingRepository.get*ForOwner, seekByOwner, streamByOwner)
+create INDEX IF NOT EXISTS idx_bookings_owner_start_id ON bookings (owner_id, start_date DESC, id DESC);
+
+-- списки Owner больше не идут через items
+drop INDEX IF EXISTS idx_bookings_item_start_id;
@@ -0,0 +1,20 @@
+-- bookings: списки бронирований User (BookingRepository.findBookingByBooker*OrderByStartDesc)
+create INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+create INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+
+-- bookings: last/next бронирование Item и списки бронирований Owner через items
+create INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- bookings: проверка завершённого Booking перед добавлением Comment
+create INDEX IF NOT EXISTS idx_bookings_booker_item_end ON bookings (booker_id, item_id, end_date);
+
+-- items: вещи Owner по порядку id и ответы на ItemRequest
+create INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+create INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+-- comments: комментарии к Item
+create INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
+
+-- requests: запросы конкретного User и общий список по дате создания
+create INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created);
+create INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
@@ -0,0 +1,6 @@
+-- bookings: seek-страницы (start_date DESC, id DESC) для списков User и Owner (BookingRepository.seekBy*)
+create INDEX IF NOT EXISTS idx_bookings_booker_start_id ON bookings (booker_id, start_date DESC, id DESC);
+create INDEX IF NOT EXISTS idx_bookings_item_start_id ON bookings (item_id, start_date DESC, id DESC);
+
+-- покрывается idx_bookings_booker_start_id
+drop INDEX IF EXISTS idx_bookings_booker_start;
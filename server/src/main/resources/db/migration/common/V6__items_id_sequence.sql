@@ -0,0 +1,2 @@
+-- items: ID выделяются Hibernate блоками по 50 (pooled-lo) - INSERT при импорте Item группируются в batch
+create SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
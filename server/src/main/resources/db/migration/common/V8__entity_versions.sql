@@ -0,0 +1,3 @@
+-- Версии Item и ItemRequest (JPA @Version) - из них строятся ETag ответов GET /items/{id} и GET /requests/{id}
+ALTER TABLE items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- Версия Booking (JPA @Version): из двух параллельных confirm одного Booking проходит только один
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,26 @@
+-- запрет пересекающихся по времени активных (WAITING, APPROVED) Booking одного Item
+create EXTENSION IF NOT EXISTS btree_gist;
+
+-- уже существующие пересечения не дают создать constraint: миграция останавливается и перечисляет пары
+-- пересекающихся Booking - какой из них отклонить (status = 'REJECTED'), решается вручную, затем миграция
+-- повторяется
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(a.id || ' и ' || o.id || ' (Item ' || a.item_id || ')', ', ' ORDER BY a.id, o.id)
+    INTO conflicts
+    FROM bookings AS a
+             JOIN bookings AS o ON o.item_id = a.item_id AND o.id > a.id
+    WHERE a.status IN ('WAITING', 'APPROVED')
+      AND o.status IN ('WAITING', 'APPROVED')
+      AND tsrange(o.start_date, o.end_date) && tsrange(a.start_date, a.end_date);
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Пересекающиеся активные Booking: %. Отклоните лишние и повторите миграцию.', conflicts;
+    END IF;
+END $$;
+
+alter table bookings ADD CONSTRAINT bookings_item_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
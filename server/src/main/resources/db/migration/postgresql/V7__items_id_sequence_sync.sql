@@ -0,0 +1,7 @@
+-- items_seq продолжает существующие ID; значение по умолчанию для INSERT в обход Hibernate тоже из items_seq,
+-- каждый nextval резервирует блок из 50 ID, поэтому такие строки не пересекаются с блоками Hibernate
+select setval('items_seq', COALESCE((select MAX(id) from items), 0) + 1, false);
+
+alter table items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+alter table items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+alter SEQUENCE items_seq OWNED BY items.id;
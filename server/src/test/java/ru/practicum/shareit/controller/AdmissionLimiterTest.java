@@ -0,0 +1,88 @@
+package ru.practicum.shareit.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.execution.AdmissionLimiter;
+
+import javax.servlet.DispatcherType;
+import java.time.Duration;
+
+@DisplayName("Тесты ограничения одновременных запросов")
+public class AdmissionLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionLimiter admissionLimiter = new AdmissionLimiter(1, Duration.ofMillis(50), meterRegistry);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    @DisplayName("Тест: запрос сверх лимита ждёт max-wait и получает 503, после завершения разрешение возвращается")
+    void limitTest() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest("GET", "/bookings");
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/bookings");
+        Assertions.assertTrue(admissionLimiter.preHandle(first, response, null));
+
+        ResponseStatusException exception = Assertions.assertThrows(ResponseStatusException.class,
+                () -> admissionLimiter.preHandle(second, response, null));
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        Assertions.assertEquals(1, meterRegistry.counter("shareit.admission.rejected").count());
+
+        admissionLimiter.afterCompletion(first, response, null, null);
+        admissionLimiter.afterCompletion(first, response, null, null); // повторно разрешение не возвращается
+        Assertions.assertTrue(admissionLimiter.preHandle(second, response, null));
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> admissionLimiter.preHandle(new MockHttpServletRequest("GET", "/items"), response, null));
+    }
+
+    @Test
+    @DisplayName("Тест: потоковый ответ держит разрешение до завершения async-обработки")
+    void asyncTest() throws Exception {
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/bookings/owner/export");
+        streaming.setAsyncSupported(true);
+        Assertions.assertTrue(admissionLimiter.preHandle(streaming, response, null));
+        streaming.startAsync();
+
+        admissionLimiter.afterConcurrentHandlingStarted(streaming, response, null);
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> admissionLimiter.preHandle(new MockHttpServletRequest("GET", "/items"), response, null));
+
+        streaming.setDispatcherType(DispatcherType.ASYNC); // тело записано - ASYNC-диспетчеризация
+        Assertions.assertTrue(admissionLimiter.preHandle(streaming, response, null));
+        admissionLimiter.afterCompletion(streaming, response, null, null);
+        streaming.getAsyncContext().complete(); // повторно разрешение не возвращается
+        Assertions.assertTrue(admissionLimiter.preHandle(new MockHttpServletRequest("GET", "/items"), response,
+                null));
+        Assertions.assertThrows(ResponseStatusException.class,
+                () -> admissionLimiter.preHandle(new MockHttpServletRequest("GET", "/items"), response, null));
+    }
+
+    @Test
+    @DisplayName("Тест: обрыв потокового ответа возвращает разрешение")
+    void asyncErrorTest() throws Exception {
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/bookings/owner/export");
+        streaming.setAsyncSupported(true);
+        Assertions.assertTrue(admissionLimiter.preHandle(streaming, response, null));
+        streaming.startAsync();
+        admissionLimiter.afterConcurrentHandlingStarted(streaming, response, null);
+
+        streaming.getAsyncContext().complete(); // без ASYNC-диспетчеризации
+
+        Assertions.assertTrue(admissionLimiter.preHandle(new MockHttpServletRequest("GET", "/items"), response,
+                null));
+    }
+
+    @Test
+    @DisplayName("Тест: лимит по умолчанию - размер пула HikariCP")
+    void poolSizeTest() {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(7);
+            Assertions.assertEquals(7, AdmissionLimiter.poolSize(dataSource));
+        }
+    }
+}
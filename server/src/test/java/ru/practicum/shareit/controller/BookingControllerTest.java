@@ -13,25 +13,31 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.StatusType;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -54,8 +60,8 @@ public class BookingControllerTest {
     void setUp() {
         mockUser1 = new User(1L, "Дональд", "donald@yandex.ru");
         mockUser2 = new User(2L, "Джо", "joe@yandex.ru");
-        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L);
-        mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1), LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED);
+        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L, null);
+        mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1), LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED, null, null);
     }
 
     @Test
@@ -189,4 +195,68 @@ public class BookingControllerTest {
 
         verify(bookingService).getAllByOwner(0, 10, "ALL", user.getId());
     }
+
+    @Test
+    @DisplayName("Тест на эндпоинт @GetMapping получение страницы Booking от User owner по cursor")
+    @SneakyThrows
+    void getPageByOwnerTest() {
+        BookingResponseDto bookingResponseDto = BookingMapper.bookingToResponse(mockBooking1);
+        Mockito
+                .when(bookingService.getPageByOwner(Mockito.anyString(), Mockito.anyInt(), Mockito.anyString(),
+                        Mockito.anyLong()))
+                .thenReturn(new BookingPageDto(List.of(bookingResponseDto), "next"));
+        mockMvc.perform(get("/bookings/owner/cursor")
+                        .param("cursor", "abc")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", mockUser1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings[0].id").value(bookingResponseDto.getId()))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andDo(print());
+
+        verify(bookingService).getPageByOwner("abc", 1, "ALL", mockUser1.getId());
+    }
+
+    @Test
+    @DisplayName("Тест на эндпоинт @GetMapping потоковой выгрузки Booking от User owner в NDJSON")
+    @SneakyThrows
+    @SuppressWarnings("unchecked")
+    void exportByOwnerTest() {
+        BookingResponseDto first = BookingMapper.bookingToResponse(new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1),
+                LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.WAITING, null, null));
+        BookingResponseDto second = BookingMapper.bookingToResponse(mockBooking1);
+        Mockito
+                .when(bookingService.exportByOwner(Mockito.eq(mockUser1.getId()), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    Consumer<BookingResponseDto> consumer = invocation.getArgument(1);
+                    consumer.accept(first);
+                    consumer.accept(second);
+                    return 2L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", mockUser1.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(first) + "\n"
+                        + objectMapper.writeValueAsString(second) + "\n"));
+    }
+
+    @Test
+    @DisplayName("Тест на эндпоинт @GetMapping потоковой выгрузки Booking несуществующим User")
+    @SneakyThrows
+    void exportByOwnerUserNotFoundTest() {
+        Mockito
+                .doThrow(new EntityNotFoundException("Нет такого User."))
+                .when(bookingService).requireUser(99L);
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Нет такого User."));
+        Mockito.verify(bookingService, Mockito.never()).exportByOwner(Mockito.any(), Mockito.any());
+    }
 }
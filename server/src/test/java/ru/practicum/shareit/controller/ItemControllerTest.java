@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -23,6 +24,8 @@ import ru.practicum.shareit.booking.model.enums.StatusType;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchErrorDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -34,7 +37,9 @@ import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -61,10 +66,10 @@ public class ItemControllerTest {
     void setUp() {
         mockUser1 = new User(1L, "Дональд", "donald@yandex.ru");
         mockUser2 = new User(2L, "Джо", "joe@yandex.ru");
-        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L);
-        mockItem2 = new Item(2L, "Молот", "Сила заключённая в предмете", true, mockUser2, 2L);
-        mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1), LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED);
-        mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1), LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED);
+        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L, null);
+        mockItem2 = new Item(2L, "Молот", "Сила заключённая в предмете", true, mockUser2, 2L, null);
+        mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1), LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED, null, null);
+        mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1), LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED, null, null);
     }
 
     @Test
@@ -97,6 +102,31 @@ public class ItemControllerTest {
         Mockito.verify(itemService).create(itemDto, 1L);
     }
 
+    @Test
+    @DisplayName("Тест на эндпоинт @PostMapping пакетного создания Item")
+    @SneakyThrows
+    void itemCreateBatchTest() {
+        ItemDto itemDto = ItemMapper.itemToDto(mockItem1);
+        itemDto.setOwner(null); // @JsonIgnore - в запрос не попадает
+        Mockito
+                .when(itemService.createBatch(Mockito.anyList(), Mockito.eq(1L)))
+                .thenReturn(new ItemBatchResultDto(List.of(itemDto),
+                        List.of(new ItemBatchErrorDto(1, "Пустая строка."))));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + objectMapper.writeValueAsString(itemDto) + ", null]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created[0].id").value(itemDto.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].index").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].error").value("Пустая строка."));
+
+        Mockito.verify(itemService).createBatch(Arrays.asList(itemDto, null), 1L);
+    }
+
     @Test
     @DisplayName("Тест на эндпоинт @GetMapping на получение Item по ID")
     @SneakyThrows
@@ -123,6 +153,39 @@ public class ItemControllerTest {
         Mockito.verify(itemService).getById(itemDto.getId(), 1L);
     }
 
+    @Test
+    @DisplayName("Тест на эндпоинт @GetMapping на получение Item по ID с ETag и If-None-Match")
+    @SneakyThrows
+    void getByIdNotModifiedTest() {
+        ItemResponseDto itemResponseDto = ItemResponseDto.create(mockBooking1, mockBooking2, mockItem1, List.of());
+        Mockito
+                .when(itemService.getETag(1L, 1L))
+                .thenReturn(Optional.of("\"3-1-2\""));
+        Mockito
+                .when(itemService.getById(1L, 1L))
+                .thenReturn(itemResponseDto);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3-1-2\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").value(mockItem1.getName()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-1-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3-1-2\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2-1-2\""))
+                .andExpect(status().isOk());
+
+        Mockito.verify(itemService, Mockito.times(2)).getById(1L, 1L); // для 304 ответ не строится
+    }
+
 
     @Test
     @DisplayName("Тест на эндпоинт @PatchMapping на одновление Item по ID")
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.request.controller.ItemRequestController;
@@ -25,10 +26,14 @@ import ru.practicum.shareit.user.model.User;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -49,7 +54,8 @@ public class ItemRequestControllerTest {
     void setUp() {
         mockUser1 = new User(1L, "Дональд", "donald@yandex.ru");
         mockUser2 = new User(2L, "Джо", "joe@yandex.ru");
-        mockItemRequest1 = new ItemRequest(1L, "Требуется серп", mockUser2, LocalDateTime.of(2021, 12, 12, 1, 1, 1));
+        mockItemRequest1 = new ItemRequest(1L, "Требуется серп", mockUser2,
+                LocalDateTime.of(2021, 12, 12, 1, 1, 1), null);
     }
 
     @Test
@@ -121,4 +127,19 @@ public class ItemRequestControllerTest {
 
         verify(itemRequestService).getById(itemRequest.getId(), user.getId());
     }
+
+    @Test
+    @DisplayName("Тест на эндпоинт @GetMapping получения ItemRequest по ID с If-None-Match")
+    @SneakyThrows
+    void getByIdNotModifiedTest() {
+        when(itemRequestService.getETag(1L, 1L)).thenReturn("\"4\"");
+
+        mockMvc.perform(get("/requests/{requestId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(itemRequestService, never()).getById(any(), any());
+    }
 }
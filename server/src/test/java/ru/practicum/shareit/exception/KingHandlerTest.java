@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.item.model.Item;
 
 import javax.validation.ConstraintViolationException;
 
@@ -52,6 +54,19 @@ public class KingHandlerTest {
         Assertions.assertEquals(exception.getMessage(), errorResponse.getMessage());
     }
 
+    @Test
+    public void testOptimisticLockingFailureException() {
+        ObjectOptimisticLockingFailureException exception = new ObjectOptimisticLockingFailureException(Item.class, 1L);
+
+        KingHandler kingHandler = new KingHandler();
+        ResponseEntity<?> response = kingHandler.optimisticLockingFailureException(exception);
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        ErrorResponse errorResponse = (ErrorResponse) response.getBody();
+        Assertions.assertEquals(exception.getClass().toString(), errorResponse.getClassName());
+        Assertions.assertEquals("Объект изменён параллельно, повторите запрос.", errorResponse.getMessage());
+    }
+
     @Test
     public void testHandleUnsupportedStatusException() {
         UnsupportedStatusException exception = new UnsupportedStatusException("Unknown state: UNSUPPORTED_STATUS");
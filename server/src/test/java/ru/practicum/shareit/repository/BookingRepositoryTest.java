@@ -1,9 +1,150 @@
 package ru.practicum.shareit.repository;
 
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @DataJpaTest
 @Transactional
 public class BookingRepositoryTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item1;
+    private Item item2;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Жора").email("goraOwner@yandex.ru").build());
+        booker = userRepository.save(User.builder().name("Петя").email("petyaBooker@yandex.ru").build());
+        item1 = itemRepository.save(Item.builder().name("Буравчик").description("Незаменимая вещь")
+                .available(true).owner(owner).build());
+        item2 = itemRepository.save(Item.builder().name("Молот").description("Сила заключённая в предмете")
+                .available(true).owner(owner).build());
+    }
+
+    private Booking booking(Item item, LocalDateTime start, StatusType status) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(status)
+                .ownerId(item.getOwner().getId())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Тест на получение последнего и ближайшего APPROVED Booking для списка Item одним запросом")
+    void findLastAndNextApprovedByItemIdsTest() {
+        LocalDateTime now = LocalDateTime.now();
+        booking(item1, now.minusDays(10), StatusType.APPROVED);
+        Booking last1 = booking(item1, now.minusDays(5), StatusType.APPROVED);
+        booking(item1, now.minusDays(2), StatusType.REJECTED);
+        Booking next1 = booking(item1, now.plusDays(3), StatusType.APPROVED);
+        booking(item1, now.plusDays(7), StatusType.APPROVED);
+        booking(item1, now.plusDays(1), StatusType.WAITING);
+        Booking next2 = booking(item2, now.plusDays(4), StatusType.APPROVED);
+        entityManager.flush();
+        entityManager.clear(); // строки читаются из результата запроса, а не из контекста
+
+        List<Booking> result = bookingRepository.findLastAndNextApprovedByItemIds(
+                List.of(item1.getId(), item2.getId()), now);
+
+        Assertions.assertEquals(3, result.size());
+        Map<Long, Booking> byId = result.stream().collect(Collectors.toMap(Booking::getId, b -> b));
+        Assertions.assertTrue(byId.containsKey(last1.getId()));
+        Assertions.assertTrue(byId.containsKey(next1.getId()));
+        Assertions.assertTrue(byId.containsKey(next2.getId()));
+    }
+
+    @Test
+    @DisplayName("Тест на постраничный обход Booking по cursor (start, id) без пропусков и повторов")
+    void seekByBookerAndOwnerTest() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Booking b1 = booking(item1, now.minusDays(3), StatusType.APPROVED);
+        Booking b2 = booking(item2, now.minusDays(1), StatusType.WAITING);
+        Booking b3 = booking(item1, now.minusDays(1), StatusType.APPROVED); // тот же start, что у b2
+        Booking b4 = booking(item2, now.plusDays(2), StatusType.REJECTED);
+        Booking b5 = booking(item1, now.plusDays(5), StatusType.APPROVED);
+        List<StatusType> all = List.of(StatusType.values());
+        LocalDateTime min = LocalDateTime.of(1, 1, 1, 0, 0);
+        LocalDateTime max = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+        List<Long> byBooker = new ArrayList<>();
+        LocalDateTime cursorStart = max;
+        Long cursorId = Long.MAX_VALUE;
+        List<Booking> page;
+        do {
+            page = bookingRepository.seekByBooker(booker.getId(), all, min, max, min, max, cursorStart, cursorId,
+                    PageRequest.of(0, 2));
+            page.forEach(b -> byBooker.add(b.getId()));
+            if (!page.isEmpty()) {
+                cursorStart = page.get(page.size() - 1).getStart();
+                cursorId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+
+        Assertions.assertEquals(List.of(b5.getId(), b4.getId(), b3.getId(), b2.getId(), b1.getId()), byBooker);
+        Assertions.assertEquals(List.of(b3.getId(), b2.getId()), bookingRepository.seekByOwner(owner.getId(), all,
+                        min, max, min, max, b4.getStart(), b4.getId(), PageRequest.of(0, 2)).stream()
+                .map(Booking::getId).collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(b5.getId()), bookingRepository.seekByOwner(owner.getId(),
+                        List.of(StatusType.APPROVED), now, max, min, max, max, Long.MAX_VALUE, PageRequest.of(0, 10))
+                .stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Тест на списки Booking для Owner по bookings.owner_id")
+    void ownerQueriesTest() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Item foreign = itemRepository.save(Item.builder().name("Пила").description("Чужая вещь").available(true)
+                .owner(booker).build());
+        Booking past = booking(item1, now.minusDays(3), StatusType.APPROVED);
+        Booking future = booking(item2, now.plusDays(2), StatusType.WAITING);
+        booking(foreign, now.plusDays(1), StatusType.WAITING);
+        entityManager.flush();
+        entityManager.clear();
+
+        Assertions.assertEquals(List.of(future.getId(), past.getId()),
+                ids(bookingRepository.getAllBookingsForOwner(owner.getId(), PageRequest.of(0, 10))));
+        Assertions.assertEquals(List.of(future.getId()), ids(bookingRepository.getBookingsForOwnerByStatus(
+                owner.getId(), StatusType.WAITING, PageRequest.of(0, 10))));
+        Assertions.assertEquals(List.of(past.getId()),
+                ids(bookingRepository.getPastBookingForOwner(owner.getId(), now, PageRequest.of(0, 10))));
+        Assertions.assertEquals(List.of(future.getId()),
+                ids(bookingRepository.getFutureBookingForOwner(owner.getId(), now, PageRequest.of(0, 10))));
+    }
+
+    private static List<Long> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@DisplayName("Тесты числа SQL-запросов на страницу списков Booking")
+public class BookingStatementCountTest {
+
+    private static final int BOOKERS = 5;
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now();
+        owner = userRepository.save(User.builder().name("Owner").email("owner@count.ru").build());
+        for (int b = 0; b < BOOKERS; b++) {
+            User user = userRepository.save(User.builder().name("Booker " + b).email(b + "@count.ru").build());
+            if (b == 0) {
+                booker = user;
+            }
+            Item item = itemRepository.save(Item.builder().name("Вещь " + b).description("Описание")
+                    .available(true).owner(owner).build());
+            for (int d = -3; d <= 3; d++) { // прошлые, текущие и будущие Booking разных Booker
+                LocalDateTime start = now.plusDays(d).minusHours(1);
+                bookingRepository.save(Booking.builder().start(start).end(start.plusHours(12))
+                        .item(item).booker(user).status(StatusType.WAITING).ownerId(owner.getId()).build());
+            }
+        }
+        entityManager.flush();
+    }
+
+    private long statements(Supplier<List<Booking>> query) {
+        entityManager.clear(); // без уже загруженных Item и User в контексте
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingResponseDto> page = query.get().stream()
+                .map(BookingMapper::bookingToResponse)
+                .collect(Collectors.toList());
+
+        Assertions.assertFalse(page.isEmpty());
+        page.forEach(dto -> Assertions.assertNotNull(dto.getItem().getName()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Страница Booking для Booker - один запрос вместе с Item и Booker")
+    void bookerListsTest() {
+        Assertions.assertEquals(1, statements(() -> bookingRepository.findBookingByBookerOrderByStartDesc(booker, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.findBookingByBookerAndStatusOrderByStartDesc(
+                booker, StatusType.WAITING, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository
+                .findBookingByBookerAndStartBeforeAndEndAfterOrderByStartDesc(booker, now, now, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.findBookingByBookerAndEndBeforeOrderByStartDesc(
+                booker, now, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.findBookingByBookerAndStartAfterOrderByStartDesc(
+                booker, now, PAGE)));
+    }
+
+    @Test
+    @DisplayName("Страница Booking для Owner - один запрос вместе с Item и Booker")
+    void ownerListsTest() {
+        Long ownerId = owner.getId();
+        Assertions.assertEquals(1, statements(() -> bookingRepository.getAllBookingsForOwner(ownerId, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.getBookingsForOwnerByStatus(ownerId,
+                StatusType.WAITING, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.getCurrentBookingForOwner(ownerId, now, now,
+                PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.getPastBookingForOwner(ownerId, now, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.getFutureBookingForOwner(ownerId, now, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.seekByOwner(ownerId, List.of(StatusType.values()),
+                now.minusYears(1), now.plusYears(1), now.minusYears(1), now.plusYears(1), now.plusYears(1),
+                Long.MAX_VALUE, PAGE)));
+        Assertions.assertEquals(1, statements(() -> bookingRepository.streamByOwner(ownerId)
+                .collect(Collectors.toList())));
+    }
+}
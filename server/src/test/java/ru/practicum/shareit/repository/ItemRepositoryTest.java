@@ -1,17 +1,44 @@
 package ru.practicum.shareit.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Transactional
 public class ItemRepositoryTest {
 
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManager entityManager;
+
     User userOwner = User.builder()
             .id(10L)
             .name("Жора")
@@ -38,4 +65,50 @@ public class ItemRepositoryTest {
             .requestId(userRequestor.getId())
             .build();
 
+    @Test
+    @DisplayName("Тест: INSERT Item группируются в batch, ID выделяются блоками последовательности")
+    void saveAllBatchTest() {
+        User owner = userRepository.save(User.builder().name("Жора").email("goraBatch@yandex.ru").build());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(Item.builder().name("Вещь " + i).description("Импорт").available(true).owner(owner).build());
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        itemRepository.saveAll(items);
+        entityManager.flush();
+
+        Assertions.assertEquals(120, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 6, // 3 nextval + 3 batch по 50 вместо 120
+                "Подготовлено запросов: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Тест: версия Item и ItemRequest растёт при изменении того, что входит в их ответы (ETag)")
+    void versionIncrementTest() {
+        User owner = userRepository.save(User.builder().name("Жора").email("goraVersion@yandex.ru").build());
+        User author = userRepository.save(User.builder().name("Вася").email("vasyaVersion@yandex.ru").build());
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder().description("Нужен буравчик")
+                .requestor(author).created(LocalDateTime.now()).build());
+        Item saved = itemRepository.save(Item.builder().name("Буравчик").description("Незаменимая вещь")
+                .available(true).owner(owner).requestId(request.getId()).build());
+        entityManager.flush();
+        Assertions.assertEquals(0L, itemRepository.findVersionById(saved.getId()).orElseThrow().getVersion());
+        Assertions.assertEquals(owner.getId(), itemRepository.findVersionById(saved.getId()).orElseThrow()
+                .getOwnerId());
+
+        saved.setName("Буравчик большой"); // обычное изменение Item - @Version
+        entityManager.flush();
+        commentRepository.save(Comment.builder().text("Отличный").item(saved).author(author).build());
+        Assertions.assertEquals(List.of(saved), itemRepository.findAllCommentedBy(author.getId())); // смена имени
+        Assertions.assertEquals(List.of(), itemRepository.findAllCommentedBy(owner.getId()));
+        entityManager.clear(); // рост версии через EntityVersions - при commit, см. SecondLevelCacheTest
+
+        Assertions.assertEquals(Optional.of(1L), itemRepository.findVersionById(saved.getId())
+                .map(ItemVersion::getVersion));
+        Assertions.assertTrue(itemRepository.findVersionById(-1L).isEmpty());
+        Assertions.assertEquals(List.of(request.getId()), itemRepository.findRequestIdsByOwnerId(owner.getId()));
+        Assertions.assertEquals(List.of(), itemRepository.findRequestIdsByOwnerId(author.getId()));
+    }
 }
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+@DataJpaTest
+@Transactional
+@DisplayName("Тесты планов горячих запросов (EXPLAIN)")
+public class QueryPlanTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Горячие запросы не должны использовать полный проход по таблице")
+    @ValueSource(strings = {
+            // BookingRepository - списки бронирований User
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 ORDER BY b.start_date DESC",
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.status = 'WAITING' ORDER BY b.start_date DESC",
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.end_date < CURRENT_TIMESTAMP "
+                    + "ORDER BY b.start_date DESC",
+            // BookingRepository - last/next бронирование Item
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.status = 'APPROVED' "
+                    + "AND b.start_date < CURRENT_TIMESTAMP ORDER BY b.end_date DESC",
+            "SELECT * FROM bookings b WHERE b.item_id = 1 AND b.status = 'APPROVED' "
+                    + "AND b.start_date > CURRENT_TIMESTAMP ORDER BY b.start_date",
+            // BookingRepository - завершённые бронирования перед добавлением Comment
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND b.item_id = 1 AND b.end_date < CURRENT_TIMESTAMP",
+            // BookingRepository - seek-страницы бронирований User
+            "SELECT * FROM bookings b WHERE b.booker_id = 1 AND (b.start_date < CURRENT_TIMESTAMP "
+                    + "OR (b.start_date = CURRENT_TIMESTAMP AND b.id < 100)) ORDER BY b.start_date DESC, b.id DESC",
+            // BookingRepository - списки бронирований Owner
+            "SELECT b.* FROM bookings b JOIN items i ON b.item_id = i.id WHERE i.owner_id = 1 "
+                    + "ORDER BY b.start_date DESC",
+            // ItemRepository
+            "SELECT * FROM items i WHERE i.owner_id = 1 ORDER BY i.id",
+            "SELECT * FROM items i WHERE i.request_id = 1 ORDER BY i.id",
+            "SELECT * FROM items i WHERE i.request_id IN (1, 2, 3) ORDER BY i.id",
+            // CommentRepository
+            "SELECT * FROM comments c WHERE c.item_id IN (1, 2, 3)",
+            // ItemRequestRepository
+            "SELECT * FROM requests r WHERE r.requestor_id = 1 ORDER BY r.created"
+    })
+    void hotQueryUsesIndexTest(String sql) {
+        String plan = explain(sql);
+        Assertions.assertFalse(plan.contains("tableScan"), "Полный проход по таблице в плане:\n" + plan);
+    }
+}
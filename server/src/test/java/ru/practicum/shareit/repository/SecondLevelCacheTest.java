@@ -0,0 +1,178 @@
+package ru.practicum.shareit.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.cache.EntityVersions;
+import ru.practicum.shareit.cache.SecondLevelCache;
+import ru.practicum.shareit.cache.SecondLevelCacheConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@DataJpaTest(properties = "shareit.l2-cache.enabled=true")
+@Import({SecondLevelCacheConfig.class, SecondLevelCache.class, EntityVersions.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // каждый вызов репозитория - отдельная транзакция,
+// как в сервисах: кэш второго уровня должен отвечать между транзакциями
+@DisplayName("Тесты кэша второго уровня Hibernate")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+    @Autowired
+    private EntityVersions entityVersions;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private User owner;
+    private User requestor;
+    private ItemRequest request;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email(UUID.randomUUID() + "@cache.ru").build());
+        requestor = userRepository.save(User.builder().name("Requestor")
+                .email(UUID.randomUUID() + "@cache.ru").build());
+        request = itemRequestRepository.save(ItemRequest.builder().description("Нужна дрель").requestor(requestor)
+                .created(LocalDateTime.now()).build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Простая дрель").available(true)
+                .owner(owner).requestId(request.getId()).build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Тест: повторное чтение Item, User и ItemRequest по id без запросов к БД")
+    void findByIdTest() {
+        itemRepository.findById(item.getId());
+        userRepository.findById(owner.getId());
+        itemRequestRepository.findById(request.getId());
+        statistics.clear();
+
+        Assertions.assertEquals("Дрель", itemRepository.findById(item.getId()).orElseThrow().getName());
+        Assertions.assertEquals("Owner", userRepository.findById(owner.getId()).orElseThrow().getName());
+        Assertions.assertEquals("Нужна дрель",
+                itemRequestRepository.findById(request.getId()).orElseThrow().getDescription());
+
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, statistics.getDomainDataRegionStatistics(Item.CACHE_REGION).getHitCount());
+        Assertions.assertEquals(1, statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount());
+        Assertions.assertEquals(1, statistics.getDomainDataRegionStatistics(ItemRequest.CACHE_REGION).getHitCount());
+    }
+
+    @Test
+    @DisplayName("Тест: изменение Item вытесняет устаревшую версию из кэша")
+    void updateTest() {
+        itemRepository.findById(item.getId());
+        item.setName("Перфоратор");
+        itemRepository.save(item);
+
+        Assertions.assertEquals("Перфоратор", itemRepository.findById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Тест: кэш запроса Item по ItemRequest и его сброс при добавлении Item")
+    void queryCacheTest() {
+        itemRepository.findAllByRequestIdOrderByIdAsc(request.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        Assertions.assertEquals(List.of(item.getId()),
+                ids(itemRepository.findAllByRequestIdOrderByIdAsc(request.getId())));
+        Assertions.assertEquals(statements, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, statistics.getQueryCacheHitCount());
+
+        Item second = itemRepository.save(Item.builder().name("Дрель ударная").description("Мощная")
+                .available(true).owner(owner).requestId(request.getId()).build());
+
+        Assertions.assertEquals(List.of(item.getId(), second.getId()),
+                ids(itemRepository.findAllByRequestIdOrderByIdAsc(request.getId())));
+    }
+
+    @Test
+    @DisplayName("Тест: рост версии Item и ItemRequest для ETag сбрасывает из кэша только их")
+    void versionIncrementTest() {
+        Item other = itemRepository.save(Item.builder().name("Шуруповёрт").description("Аккумуляторный")
+                .available(true).owner(owner).build());
+        itemRepository.findById(item.getId());
+        itemRepository.findById(other.getId());
+        itemRequestRepository.findById(request.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            entityVersions.increment(itemRepository.findAllById(List.of(item.getId())));
+            entityVersions.increment(itemRequestRepository.findAllById(List.of(request.getId())));
+        });
+        statistics.clear();
+
+        Assertions.assertEquals(item.getVersion() + 1, itemRepository.findById(item.getId()).orElseThrow()
+                .getVersion());
+        Assertions.assertEquals(other.getVersion(), itemRepository.findById(other.getId()).orElseThrow()
+                .getVersion());
+        Assertions.assertEquals(request.getVersion() + 1, itemRequestRepository.findById(request.getId())
+                .orElseThrow().getVersion());
+        Assertions.assertEquals(Optional.of(item.getVersion() + 1), itemRepository.findVersionById(item.getId())
+                .map(ItemVersion::getVersion));
+        Assertions.assertEquals(1, statistics.getDomainDataRegionStatistics(Item.CACHE_REGION).getHitCount()); // other
+        Assertions.assertEquals(1, statistics.getDomainDataRegionStatistics(Item.CACHE_REGION).getMissCount());
+
+        Item cached = itemRepository.findById(item.getId()).orElseThrow(); // из кэша - уже новая версия,
+        cached.setName("Перфоратор"); // изменение не отклоняется как параллельное
+        Assertions.assertEquals(item.getVersion() + 2, itemRepository.save(cached).getVersion());
+    }
+
+    @Test
+    @DisplayName("Тест: удаление User сбрасывает его удалённые каскадом Item и ItemRequest и кэш запросов")
+    void deleteUserTest() {
+        itemRepository.findById(item.getId());
+        itemRequestRepository.findById(request.getId());
+        itemRepository.findAllByRequestIdOrderByIdAsc(request.getId());
+
+        deleteUser(owner); // Item удаляется каскадом в БД
+        Assertions.assertTrue(itemRepository.findById(item.getId()).isEmpty());
+        Assertions.assertEquals(List.of(), itemRepository.findAllByRequestIdOrderByIdAsc(request.getId()));
+
+        itemRequestRepository.findById(request.getId());
+        deleteUser(requestor); // ItemRequest удаляется каскадом в БД
+        Assertions.assertTrue(itemRequestRepository.findById(request.getId()).isEmpty());
+    }
+
+    private void deleteUser(User user) { // как UserService.deleteById - сброс кэша после commit
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.deleteById(user.getId());
+            secondLevelCache.evictItemsAndRequests();
+        });
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.metrics.RequestMetricsConfig;
+import ru.practicum.shareit.metrics.StatementCountInterceptor;
+import ru.practicum.shareit.metrics.StatementCounter;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+
+@DataJpaTest
+@Import({RequestMetricsConfig.class, SimpleMeterRegistry.class})
+@DisplayName("Тесты счётчика SQL-запросов на HTTP-запрос")
+public class StatementCounterTest {
+
+    @Autowired
+    private StatementCounter statementCounter;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Тест: Hibernate передаёт каждый SQL-запрос в StatementCounter")
+    void countTest() {
+        User user = userRepository.save(User.builder().name("Дональд").email("donald@count.ru").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Assertions.assertEquals(0, statementCounter.stop()); // вне start() запросы не считаются
+        statementCounter.start();
+        userRepository.findById(user.getId());
+        userRepository.findAll();
+
+        Assertions.assertEquals(2, statementCounter.stop());
+        Assertions.assertFalse(statementCounter.isStarted());
+    }
+
+    @Test
+    @DisplayName("Тест: число SQL-запросов записывается в shareit.db.statements с тегами method и uri")
+    void interceptorTest() {
+        StatementCountInterceptor interceptor = new StatementCountInterceptor(statementCounter, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        userRepository.findAll();
+        userRepository.count();
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        DistributionSummary summary = meterRegistry.get("shareit.db.statements")
+                .tag("method", "GET").tag("uri", "/users/{id}").summary();
+        Assertions.assertEquals(1, summary.count());
+        Assertions.assertEquals(2, summary.totalAmount());
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+@SpringBootTest(properties = "shareit.booking.last-next.source=timeline")
+@DisplayName("Тесты конкурентного подтверждения Booking")
+public class BookingConfirmContentionTest {
+
+    private static final int BOOKINGS = 20;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingTimeline bookingTimeline;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email(UUID.randomUUID() + "@owner.ru").build());
+        User booker = userRepository.save(User.builder().name("Booker")
+                .email(UUID.randomUUID() + "@booker.ru").build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) { // у каждого Booking свой Item - проверяем индекс по каждому
+            Item item = itemRepository.save(Item.builder().name("Вещь " + i).description("Для confirm")
+                    .available(true).owner(owner).build());
+            bookingIds.add(bookingService.create(new BookingRequestDto(item.getId(), start, start.plusHours(1)),
+                    booker.getId()).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: из параллельных approve/reject одного Booking выигрывает ровно один")
+    void onlyOneConfirmWinsTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Long bookingId : bookingIds) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    boolean approved = t % 2 == 0;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return confirm(bookingId, approved);
+                    }));
+                }
+                start.countDown();
+
+                List<Boolean> winners = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    if (futures.get(t).get(1, TimeUnit.MINUTES)) {
+                        winners.add(t % 2 == 0);
+                    }
+                }
+                Assertions.assertEquals(1, winners.size(), "Booking " + bookingId);
+
+                Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+                StatusType expected = winners.get(0) ? StatusType.APPROVED : StatusType.REJECTED;
+                Assertions.assertEquals(expected, booking.getStatus());
+                Assertions.assertEquals(1L, booking.getVersion()); // одна успешная запись
+                LastNextBookings lastNext = bookingTimeline.find(booking.getItem().getId(), LocalDateTime.now())
+                        .orElseThrow();
+                Assertions.assertEquals(expected == StatusType.APPROVED ? bookingId : null,
+                        lastNext.getNextBooking() == null ? null : lastNext.getNextBooking().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean confirm(Long bookingId, boolean approved) {
+        try {
+            bookingService.confirm(bookingId, owner.getId(), approved);
+            return true;
+        } catch (ResponseStatusException e) {
+            Assertions.assertEquals(HttpStatus.BAD_REQUEST, e.getStatus()); // проигравший видит решённый Booking
+            return false;
+        }
+    }
+}
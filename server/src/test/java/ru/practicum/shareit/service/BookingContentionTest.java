@@ -0,0 +1,100 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+@SpringBootTest
+@DisplayName("Тесты конкурентного создания Booking")
+public class BookingContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int BOOKINGS_PER_THREAD = 25;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User booker;
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("Owner").email(UUID.randomUUID() + "@owner.ru").build());
+        booker = userRepository.save(User.builder().name("Booker").email(UUID.randomUUID() + "@booker.ru").build());
+        items = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            items.add(itemRepository.save(Item.builder().name("Вещь " + i).description("Для бенчмарка")
+                    .available(true).owner(owner).build()));
+        }
+    }
+
+    private long run(IntFunction<Callable<Boolean>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<Boolean> call = task.apply(t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int created = 0;
+                    for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                        if (call.call()) {
+                            created++;
+                        }
+                    }
+                    return created;
+                }));
+            }
+            start.countDown();
+            long created = 0;
+            for (Future<Integer> future : futures) {
+                created += future.get(1, TimeUnit.MINUTES);
+            }
+            return created;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean book(Item item, LocalDateTime start) {
+        try {
+            bookingService.create(new BookingRequestDto(item.getId(), start, start.plusMinutes(59)), booker.getId());
+            return true;
+        } catch (ResponseStatusException e) {
+            return false;
+        }
+    }
+
+    @Test
+    @DisplayName("Тест: на один и тот же период Item создаётся ровно один Booking")
+    void sameSlotOnlyOneWinsTest() throws Exception {
+        LocalDateTime slot = LocalDateTime.now().plusDays(1);
+        Item hot = items.get(0);
+
+        long created = run(t -> () -> book(hot, slot));
+
+        Assertions.assertEquals(1, created);
+    }
+}
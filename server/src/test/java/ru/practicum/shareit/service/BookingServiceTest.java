@@ -7,28 +7,43 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.lastnext.LastNextBookingsSource;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.StatusType;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.BookingSlotGuard;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -50,6 +65,12 @@ public class BookingServiceTest {
     UserRepository userRepository;
     @Mock
     BookingRepository bookingRepository;
+    @Mock
+    BookingSlotGuard bookingSlotGuard;
+    @Mock
+    LastNextBookingsSource lastNextBookings;
+    @Mock
+    EntityManager entityManager;
 
     @InjectMocks
     BookingServiceImpl bookingServiceImpl;
@@ -59,12 +80,14 @@ public class BookingServiceTest {
     @BeforeEach
     void init() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
-        bookingServiceImpl = new BookingServiceImpl(bookingRepository, itemRepository, userRepository);
+        bookingServiceImpl = new BookingServiceImpl(bookingRepository, itemRepository,
+                new UserCache(userRepository, 100, Duration.ofMinutes(5)),
+                bookingSlotGuard, lastNextBookings, entityManager, TransactionOperations.withoutTransaction());
         mockUser1 = new User(1L, "Дональд", "donald@yandex.ru");
         mockUser2 = new User(2L, "Джо", "joe@yandex.ru");
-        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L);
-        mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1), LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED);
-        mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1), LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED);
+        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L, null);
+        mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1), LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED, null, null);
+        mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1), LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED, null, null);
     }
 
     @AfterEach
@@ -91,6 +114,47 @@ public class BookingServiceTest {
         BookingResponseDto result = bookingServiceImpl.create(bookingRequestDto, user.getId());
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(booking.getId());
+        Mockito.verify(bookingRepository).save(Mockito.argThat(saved ->
+                item.getOwner().getId().equals(saved.getOwnerId()))); // owner_id денормализован при создании
+    }
+
+    @Test
+    @DisplayName("Тест на создание Booking на уже занятый период")
+    public void createOverlappingTest() {
+        BookingRequestDto bookingRequestDto = new BookingRequestDto(mockItem1.getId(),
+                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(7));
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser2));
+        Mockito.when(itemRepository.findById(Mockito.any())).thenReturn(Optional.of(mockItem1));
+        Mockito.when(bookingRepository.existsOverlapping(Mockito.eq(mockItem1.getId()), Mockito.any(), Mockito.any(),
+                Mockito.any())).thenReturn(true);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceImpl.create(bookingRequestDto, mockUser2.getId()));
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        Mockito.verify(bookingSlotGuard).lock(mockItem1.getId());
+        Mockito.verify(bookingRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Тест: 409 только при нарушении bookings_item_no_overlap (SQLState 23P01), другие не скрываются")
+    public void createConstraintViolationTest() {
+        BookingRequestDto bookingRequestDto = new BookingRequestDto(mockItem1.getId(),
+                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(7));
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser2));
+        Mockito.when(itemRepository.findById(Mockito.any())).thenReturn(Optional.of(mockItem1));
+        Mockito.when(bookingRepository.save(Mockito.any()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "ОШИБКА: конфликтующее значение ключа нарушает ограничение-исключение", "23P01"))) // текст
+                // сообщения зависит от lc_messages сервера
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "ERROR: insert or update on table \"bookings\" violates foreign key constraint", "23503")));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceImpl.create(bookingRequestDto, mockUser2.getId()));
+        Assertions.assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingServiceImpl.create(bookingRequestDto, mockUser2.getId()));
     }
 
     @Test
@@ -185,11 +249,11 @@ public class BookingServiceTest {
         booking.setStatus(StatusType.WAITING);
         booking.getItem().setOwner(mockUser1);
         Mockito.when(bookingRepository.findById(Mockito.any())).thenReturn(Optional.of(booking));
-        Mockito.when(userRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
         bookingServiceImpl.confirm(booking.getId(), booking.getItem().getOwner().getId(), true);
         Assertions.assertEquals(StatusType.APPROVED, booking.getStatus());
         Mockito.verify(bookingRepository, times(1)).findById(1L);
-        Mockito.verify(userRepository, times(1)).existsById(1L);
+        Mockito.verify(userRepository, times(1)).findById(1L);
     }
 
     @Test
@@ -206,7 +270,7 @@ public class BookingServiceTest {
         Booking booking = mockBooking1;
         booking.setStatus(StatusType.WAITING);
         Mockito.when(bookingRepository.findById(Mockito.any())).thenReturn(Optional.of(booking));
-        Mockito.when(userRepository.existsById(Mockito.any())).thenReturn(false);
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.empty());
         Exception exception = assertThrows(EntityNotFoundException.class, () -> bookingServiceImpl.confirm(1L, 1L, true));
         Assertions.assertEquals("Нет такого User.", exception.getMessage());
     }
@@ -218,7 +282,7 @@ public class BookingServiceTest {
         booking.setStatus(StatusType.APPROVED);
         Mockito.when(bookingRepository.findById(Mockito.any())).thenReturn(Optional.of(booking));
         User userOwner = mockUser1;
-        Mockito.when(userRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
         assertThrows(ResponseStatusException.class, () -> bookingServiceImpl.confirm(1L, 1L, true));
         Exception exception = assertThrows(ResponseStatusException.class, () -> bookingServiceImpl.confirm(1L, 1L, true));
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, ((ResponseStatusException) exception).getStatus());
@@ -232,7 +296,7 @@ public class BookingServiceTest {
         booking.setStatus(StatusType.REJECTED);
         Mockito.when(bookingRepository.findById(Mockito.any())).thenReturn(Optional.of(booking));
         User userOwner = mockUser1;
-        Mockito.when(userRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
         Assertions.assertThrows(ResponseStatusException.class, () -> bookingServiceImpl.confirm(1L, 1L, false));
         Exception exception = assertThrows(ResponseStatusException.class, () -> bookingServiceImpl.confirm(1L, 1L, false));
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, ((ResponseStatusException) exception).getStatus());
@@ -246,7 +310,7 @@ public class BookingServiceTest {
         booking.setStatus(StatusType.WAITING);
         Mockito.when(bookingRepository.findById(Mockito.any())).thenReturn(Optional.of(booking));
         User userOwner = mockUser2;
-        Mockito.when(userRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
         assertThrows(ResponseStatusException.class, () -> bookingServiceImpl.confirm(1L, 2L, false));
         Exception exception = assertThrows(ResponseStatusException.class, () -> bookingServiceImpl.confirm(1L, 2L, false));
         Assertions.assertEquals(HttpStatus.NOT_FOUND, ((ResponseStatusException) exception).getStatus());
@@ -262,11 +326,53 @@ public class BookingServiceTest {
         booking.setStatus(StatusType.WAITING);
         booking.getItem().setOwner(mockUser1);
         Mockito.when(bookingRepository.findById(Mockito.any())).thenReturn(Optional.of(booking));
-        Mockito.when(userRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
         BookingResponseDto response = bookingServiceImpl.confirm(booking.getId(), booking.getItem().getOwner().getId(), approved);
         Assertions.assertEquals(StatusType.REJECTED, booking.getStatus());
     }
 
+    @Test
+    @DisplayName("Тест на повтор confirm после параллельного изменения Booking")
+    public void testConfirmRetryAfterConflict() {
+        Booking booking = mockBooking2;
+        booking.setStatus(StatusType.WAITING);
+        Booking approvedConcurrently = new Booking(booking.getId(), booking.getStart(), booking.getEnd(),
+                booking.getItem(), booking.getBooker(), StatusType.APPROVED, booking.getOwnerId(), 1L);
+        Mockito.when(bookingRepository.findById(booking.getId()))
+                .thenReturn(Optional.of(booking))
+                .thenReturn(Optional.of(approvedConcurrently));
+        Mockito.when(userRepository.findById(mockUser1.getId())).thenReturn(Optional.of(mockUser1));
+        Mockito.when(bookingRepository.saveAndFlush(booking))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceImpl.confirm(booking.getId(), mockUser1.getId(), false));
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus()); // повтор увидел APPROVED
+        Mockito.verify(bookingRepository, times(2)).findById(booking.getId());
+        Mockito.verify(lastNextBookings, Mockito.never()).onSaved(Mockito.any()); // источник не знает о проигравшем
+    }
+
+    @Test
+    @DisplayName("Тест на 409 после исчерпания попыток confirm")
+    public void testConfirmConflictAttemptsExhausted() {
+        Booking booking = mockBooking2;
+        booking.setStatus(StatusType.WAITING);
+        Mockito.when(bookingRepository.findById(booking.getId())).thenAnswer(invocation -> {
+            booking.setStatus(StatusType.WAITING); // каждый раз - снова WAITING, но с новой версией
+            return Optional.of(booking);
+        });
+        Mockito.when(userRepository.findById(mockUser1.getId())).thenReturn(Optional.of(mockUser1));
+        Mockito.when(bookingRepository.saveAndFlush(booking))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceImpl.confirm(booking.getId(), mockUser1.getId(), true));
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+        Mockito.verify(bookingRepository, times(3)).saveAndFlush(booking);
+    }
+
     @Test
     @DisplayName("Тест testInvalidBookingStatus")
     public void testInvalidBookingStatus() {
@@ -274,7 +380,7 @@ public class BookingServiceTest {
         Booking booking = mockBooking1;
         booking.setStatus(StatusType.APPROVED);
         Mockito.when(bookingRepository.findById(Mockito.any())).thenReturn(Optional.of(booking));
-        Mockito.when(userRepository.existsById(Mockito.any())).thenReturn(true);
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
         Exception exception = assertThrows(ResponseStatusException.class, () -> {
             bookingServiceImpl.confirm(1L, 1L, approved);
         });
@@ -299,7 +405,7 @@ public class BookingServiceTest {
         Long bookingId = 1L;
         Long userId = 1L;
         Mockito.when(bookingRepository.findById(Mockito.any())).thenReturn(null);
-        //  Mockito.when(userRepository.existsById(Mockito.any())).thenReturn(true);
+        //  Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
         assertThrows(NullPointerException.class, () -> {
             bookingServiceImpl.getById(bookingId, userId);
         });
@@ -610,5 +716,78 @@ public class BookingServiceTest {
             bookingServiceImpl.getAllByOwner(from, size, state, bookerId);
         });
     }
-}
 
+    @Test
+    @DisplayName("Тест testGetAllByOwnerOffset: from переводится в номер страницы так же, как для Booker")
+    public void testGetAllByOwnerOffset() {
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
+        Mockito.when(bookingRepository.getAllBookingsForOwner(Mockito.any(), Mockito.any())).thenReturn(List.of());
+
+        bookingServiceImpl.getAllByOwner(20, 10, "ALL", 1L);
+
+        Mockito.verify(bookingRepository).getAllBookingsForOwner(1L, PageRequest.of(2, 10));
+    }
+
+    @Test
+    @DisplayName("Тест testGetPageByBooker: полная страница возвращает cursor последнего Booking")
+    public void testGetPageByBooker() {
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser2));
+        Mockito.when(bookingRepository.seekByBooker(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(mockBooking2, mockBooking1));
+
+        BookingPageDto page = bookingServiceImpl.getPageByBooker(null, 2, "ALL", 2L);
+
+        Assertions.assertEquals(List.of(BookingMapper.bookingToResponse(mockBooking2),
+                BookingMapper.bookingToResponse(mockBooking1)), page.getBookings());
+        Assertions.assertEquals(BookingCursor.after(mockBooking1), BookingCursor.decode(page.getNextCursor()));
+        Mockito.verify(bookingRepository).seekByBooker(Mockito.eq(2L), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.eq(BookingCursor.FIRST.getStart()),
+                Mockito.eq(BookingCursor.FIRST.getId()), Mockito.eq(PageRequest.of(0, 2)));
+    }
+
+    @Test
+    @DisplayName("Тест testGetPageByOwner: последняя страница без cursor, фильтр WAITING и ошибки")
+    public void testGetPageByOwner() {
+        Mockito.when(userRepository.findById(Mockito.any())).thenReturn(Optional.of(mockUser1));
+        Mockito.when(bookingRepository.seekByOwner(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(mockBooking1));
+        String cursor = BookingCursor.after(mockBooking2).encode();
+
+        BookingPageDto page = bookingServiceImpl.getPageByOwner(cursor, 10, "WAITING", 1L);
+
+        Assertions.assertNull(page.getNextCursor());
+        Mockito.verify(bookingRepository).seekByOwner(Mockito.eq(1L), Mockito.eq(List.of(StatusType.WAITING)),
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(mockBooking2.getStart()),
+                Mockito.eq(mockBooking2.getId()), Mockito.any());
+        assertThrows(UnsupportedStatusException.class, () -> bookingServiceImpl.getPageByOwner(null, 10, "BAD", 1L));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> bookingServiceImpl.getPageByOwner("не-cursor", 10, "ALL", 1L));
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    @DisplayName("Тест на потоковую выгрузку всех Booking для User owner")
+    public void testExportByOwner() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser1));
+        Mockito.when(bookingRepository.streamByOwner(1L)).thenReturn(Stream.of(mockBooking2, mockBooking1));
+        List<BookingResponseDto> exported = new ArrayList<>();
+
+        long count = bookingServiceImpl.exportByOwner(1L, exported::add);
+
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals(List.of(mockBooking2.getId(), mockBooking1.getId()),
+                exported.stream().map(BookingResponseDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Тест на потоковую выгрузку Booking несуществующим User")
+    public void testExportByOwnerUserNotFound() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> bookingServiceImpl.exportByOwner(1L, booking -> {
+        }));
+        Mockito.verify(bookingRepository, Mockito.never()).streamByOwner(Mockito.any());
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.summary.BookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@SpringBootTest(properties = {"shareit.booking.last-next.source=summary",
+        "shareit.booking.summary.roll-forward-delay=PT1H"}) // задача по расписанию не вмешивается в тест
+@DisplayName("Тесты сводки last/next Booking по Item")
+public class BookingSummaryTest {
+
+    @Autowired
+    private BookingSummary bookingSummary;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Owner").email(UUID.randomUUID() + "@owner.ru").build());
+        booker = userRepository.save(User.builder().name("Booker").email(UUID.randomUUID() + "@booker.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Для сводки").available(true)
+                .owner(owner).build());
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    private Long approved(LocalDateTime bookingStart) {
+        Long bookingId = bookingService.create(new BookingRequestDto(item.getId(), bookingStart,
+                bookingStart.plusHours(1)), booker.getId()).getId();
+        bookingService.confirm(bookingId, owner.getId(), true);
+        return bookingId;
+    }
+
+    private static Long id(BookingShortDto booking) {
+        return booking == null ? null : booking.getId();
+    }
+
+    @Test
+    @DisplayName("Тест: confirm обновляет сводку, задача сдвигает её вперёд со временем")
+    void approveAndRollForwardTest() {
+        Long later = approved(start.plusDays(2));
+        Assertions.assertTrue(bookingSummary.find(item.getId(), LocalDateTime.now()).isEmpty()); // строки ещё нет
+
+        bookingSummary.rollForward(LocalDateTime.now());
+        Assertions.assertEquals(later, id(bookingSummary.find(item.getId(), LocalDateTime.now())
+                .orElseThrow().getNextBooking()));
+
+        Long earlier = approved(start); // начинается раньше - становится next без пересчёта
+        LastNextBookings bookings = bookingSummary.find(item.getId(), LocalDateTime.now()).orElseThrow();
+        Assertions.assertNull(bookings.getLastBooking());
+        Assertions.assertEquals(earlier, id(bookings.getNextBooking()));
+
+        LocalDateTime afterEarlier = start.plusHours(2);
+        Assertions.assertTrue(bookingSummary.find(item.getId(), afterEarlier).isEmpty()); // next уже начался
+        bookingSummary.rollForward(afterEarlier);
+        bookings = bookingSummary.find(item.getId(), afterEarlier).orElseThrow();
+        Assertions.assertEquals(earlier, id(bookings.getLastBooking()));
+        Assertions.assertEquals(later, id(bookings.getNextBooking()));
+    }
+
+    @Test
+    @DisplayName("Тест: проверка согласованности находит и пересчитывает испорченную строку")
+    void checkRebuildsDivergedSummaryTest() {
+        Long bookingId = approved(start);
+        LocalDateTime now = LocalDateTime.now();
+        bookingSummary.rollForward(now);
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        summary.setNextBookingId(bookingId + 1000);
+        summaryRepository.save(summary);
+
+        Assertions.assertEquals(1, bookingSummary.check(now));
+        Assertions.assertEquals(bookingId, id(bookingSummary.find(item.getId(), now).orElseThrow().getNextBooking()));
+        Assertions.assertEquals(0, bookingSummary.check(now));
+    }
+
+    @Test
+    @DisplayName("Тест: удаление User сбрасывает строки сводки с его Booking")
+    void userDeleteInvalidatesSummaryTest() {
+        Long bookingId = approved(start);
+        LocalDateTime now = LocalDateTime.now();
+        bookingSummary.rollForward(now);
+        Assertions.assertEquals(bookingId, id(bookingSummary.find(item.getId(), now).orElseThrow().getNextBooking()));
+
+        userService.deleteById(booker.getId()); // Booking удаляется каскадом в БД
+
+        Assertions.assertTrue(bookingSummary.find(item.getId(), now).isEmpty()); // не отдаёт удалённый Booking
+        bookingSummary.rollForward(now);
+        LastNextBookings bookings = bookingSummary.find(item.getId(), now).orElseThrow();
+        Assertions.assertNull(bookings.getNextBooking());
+        Assertions.assertNull(bookings.getLastBooking());
+    }
+}
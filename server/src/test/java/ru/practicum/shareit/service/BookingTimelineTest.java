@@ -0,0 +1,123 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+import ru.practicum.shareit.booking.lastnext.NoLastNextBookingsSource;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.booking.timeline.BookingTimelineEntry;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DisplayName("Тесты класса BookingTimeline")
+public class BookingTimelineTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 10, 12, 0);
+    private final User booker = new User(2L, "Джо", "joe@yandex.ru");
+    private final Item item = new Item(1L, "Серп", "Часть чего то важного", true, booker, null, null);
+
+    private BookingRepository bookingRepository;
+    private ItemRepository itemRepository;
+    private BookingTimeline bookingTimeline;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = Mockito.mock(BookingRepository.class);
+        itemRepository = Mockito.mock(ItemRepository.class);
+        Mockito.when(itemRepository.findIds(Mockito.any())).thenReturn(List.of(1L));
+        Mockito.when(bookingRepository.findTimelineEntries(List.of(1L), StatusType.APPROVED)).thenReturn(List.of(
+                entry(10L, now.minusDays(9), now.minusDays(1)),  // длинное прошлое - наибольший end
+                entry(11L, now.minusDays(5), now.minusDays(4)),
+                entry(12L, now.plusDays(3), now.plusDays(4)),
+                entry(13L, now.plusDays(1), now.plusDays(2))));
+        bookingTimeline = new BookingTimeline(bookingRepository, itemRepository, 10, 100);
+        bookingTimeline.warmUp();
+    }
+
+    private BookingTimelineEntry entry(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingTimelineEntry(id, item.getId(), booker.getId(), start, end);
+    }
+
+    private Booking booking(Long id, LocalDateTime start, StatusType status) {
+        return new Booking(id, start, start.plusHours(1), item, booker, status, item.getOwner().getId(), null);
+    }
+
+    @Test
+    @DisplayName("Тест на получение last/next Booking из индекса без запросов к БД")
+    void findTest() {
+        LastNextBookings bookings = bookingTimeline.find(1L, now).orElseThrow();
+
+        Assertions.assertEquals(10L, bookings.getLastBooking().getId());
+        Assertions.assertEquals(13L, bookings.getNextBooking().getId());
+        Assertions.assertEquals(booker.getId(), bookings.getNextBooking().getBookerId());
+        Mockito.verify(bookingRepository, Mockito.times(1)).findTimelineEntries(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Тест на обновление индекса при подтверждении и отклонении Booking")
+    void onSavedTest() {
+        bookingTimeline.onSaved(booking(14L, now.plusHours(2), StatusType.WAITING));
+        Assertions.assertEquals(13L, bookingTimeline.find(1L, now).orElseThrow().getNextBooking().getId());
+
+        bookingTimeline.onSaved(booking(14L, now.plusHours(2), StatusType.APPROVED));
+        Assertions.assertEquals(14L, bookingTimeline.find(1L, now).orElseThrow().getNextBooking().getId());
+
+        bookingTimeline.onSaved(booking(14L, now.plusHours(2), StatusType.REJECTED));
+        Assertions.assertEquals(13L, bookingTimeline.find(1L, now).orElseThrow().getNextBooking().getId());
+    }
+
+    @Test
+    @DisplayName("Тест на загрузку Item, отсутствующего в индексе, и источник без индекса")
+    void loadOnMissAndDisabledTest() {
+        Mockito.when(bookingRepository.findTimelineEntries(List.of(5L), StatusType.APPROVED)).thenReturn(List.of());
+
+        LastNextBookings bookings = bookingTimeline.find(5L, now).orElseThrow();
+        bookingTimeline.find(5L, now);
+
+        Assertions.assertNull(bookings.getLastBooking());
+        Assertions.assertNull(bookings.getNextBooking());
+        Mockito.verify(bookingRepository, Mockito.times(1)).findTimelineEntries(List.of(5L), StatusType.APPROVED);
+        Assertions.assertTrue(new NoLastNextBookingsSource().find(1L, now).isEmpty()); // источник по умолчанию
+    }
+
+    @Test
+    @DisplayName("Тест: Item с бронированиями сверх лимита не кэшируется, find пуст")
+    void tooManyBookingsTest() {
+        BookingTimeline small = new BookingTimeline(bookingRepository, itemRepository, 10, 3);
+
+        Assertions.assertTrue(small.find(1L, now).isEmpty()); // 4 Booking при лимите 3
+    }
+
+    @Test
+    @DisplayName("Тест: изменение другого Item во время загрузки не мешает положить её в индекс, того же - мешает")
+    void concurrentChangeTest() {
+        Mockito.when(bookingRepository.findTimelineEntries(List.of(5L), StatusType.APPROVED))
+                .thenAnswer(invocation -> {
+                    bookingTimeline.onSaved(booking(14L, now.plusHours(2), StatusType.APPROVED)); // Item 1
+                    return List.of();
+                });
+        Assertions.assertTrue(bookingTimeline.find(5L, now).isPresent());
+
+        Mockito.when(bookingRepository.findTimelineEntries(List.of(6L), StatusType.APPROVED))
+                .thenAnswer(invocation -> {
+                    bookingTimeline.evict(6L); // конкурентное изменение того же Item
+                    return List.of();
+                })
+                .thenReturn(List.of());
+        Assertions.assertTrue(bookingTimeline.find(6L, now).isEmpty());
+        Assertions.assertTrue(bookingTimeline.find(6L, now).isPresent()); // следующая загрузка - без изменений
+
+        bookingTimeline.find(5L, now);
+        Mockito.verify(bookingRepository, Mockito.times(1)).findTimelineEntries(List.of(5L), StatusType.APPROVED);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.StatusType;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.EntityVersions;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.CommentIngestion;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = "shareit.comments.ingestion=async")
+@DisplayName("Тесты асинхронного приёма Comment")
+public class CommentIngestionTest {
+
+    @Autowired
+    private CommentIngestion commentIngestion;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private EntityVersions entityVersions;
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    private User booker;
+    private User stranger;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder().name("Owner").email(UUID.randomUUID() + "@owner.ru").build());
+        booker = userRepository.save(User.builder().name("Booker").email(UUID.randomUUID() + "@booker.ru").build());
+        stranger = userRepository.save(User.builder().name("Stranger")
+                .email(UUID.randomUUID() + "@stranger.ru").build());
+        item = itemRepository.save(Item.builder().name("Дрель").description("Для Comment").available(true)
+                .owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        bookingRepository.save(Booking.builder().start(start).end(start.plusDays(1)).item(item).booker(booker)
+                .status(StatusType.APPROVED).ownerId(item.getOwner().getId()).build());
+    }
+
+    private static CommentDto comment(String text) {
+        return CommentDto.builder().text(text).build();
+    }
+
+    private List<String> savedTexts() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<Comment> comments;
+        while ((comments = commentRepository.findAllByItem_Id(item.getId())).size() < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(300); // отклонённые Comment не должны появиться и позже
+        return commentRepository.findAllByItem_Id(item.getId()).stream()
+                .map(Comment::getText)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Тест: сохраняются только Comment авторов с завершённым Booking, ETag Item меняется")
+    void acceptAndSaveInBatchesTest() throws Exception {
+        long version = itemRepository.findVersionById(item.getId()).orElseThrow().getVersion();
+
+        Assertions.assertNull(commentIngestion.accept(comment("Первый"), item.getId(), booker.getId()).getId());
+        commentIngestion.accept(comment("Чужой"), item.getId(), stranger.getId());
+        commentIngestion.accept(comment("Второй"), item.getId(), booker.getId());
+        commentIngestion.accept(comment("Без Item"), item.getId() + 1000, booker.getId());
+
+        Assertions.assertEquals(List.of("Второй", "Первый"), savedTexts());
+        Assertions.assertTrue(itemRepository.findVersionById(item.getId()).orElseThrow().getVersion() > version);
+    }
+
+    @Test
+    @DisplayName("Тест: при переполненной очереди Comment не принимается - 429")
+    void fullQueueTest() {
+        CommentIngestion stopped = new CommentIngestion(itemRepository, bookingRepository, commentRepository,
+                userCache, entityVersions, transactionOperations, new SimpleMeterRegistry(), 1, 10); // поток не запущен
+
+        stopped.accept(comment("Первый"), item.getId(), booker.getId());
+        ResponseStatusException exception = Assertions.assertThrows(ResponseStatusException.class,
+                () -> stopped.accept(comment("Второй"), item.getId(), booker.getId()));
+
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+    }
+
+    @Test
+    @DisplayName("Тест: Comment длиннее 512 символов не принимается - 400")
+    void tooLongTextTest() {
+        ResponseStatusException exception = Assertions.assertThrows(ResponseStatusException.class,
+                () -> commentIngestion.accept(comment("д".repeat(513)), item.getId(), booker.getId()));
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    @DisplayName("Тест: ошибка сохранения одного Comment отклоняет только его, остальные Comment пакета сохраняются")
+    void failedRowTest() throws Exception {
+        CommentRepository failing = Mockito.mock(CommentRepository.class);
+        Mockito.when(failing.saveAll(Mockito.any())).thenAnswer(invocation -> {
+            List<Comment> comments = invocation.getArgument(0);
+            List<Comment> result = commentRepository.saveAll(comments); // вставленные строки откатываются
+            if (comments.stream().anyMatch(comment -> comment.getText().equals("Ошибка"))) {
+                throw new DataIntegrityViolationException("Нарушено ограничение comments");
+            }
+            return result;
+        });
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CommentIngestion ingestion = new CommentIngestion(itemRepository, bookingRepository, failing, userCache,
+                entityVersions, transactionOperations, meterRegistry, 10, 10);
+        ingestion.accept(comment("Первый"), item.getId(), booker.getId());
+        ingestion.accept(comment("Ошибка"), item.getId(), booker.getId());
+        ingestion.accept(comment("Второй"), item.getId(), booker.getId());
+
+        ingestion.start(); // все три Comment забираются одним пакетом
+        ingestion.destroy();
+
+        Assertions.assertEquals(List.of("Второй", "Первый"), savedTexts());
+        Assertions.assertEquals(2, meterRegistry.get("shareit.comments.ingested").tag("result", "saved")
+                .counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("shareit.comments.ingested").tag("result", "rejected")
+                .counter().count());
+    }
+}
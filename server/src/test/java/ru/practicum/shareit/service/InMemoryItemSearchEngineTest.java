@@ -0,0 +1,136 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@DisplayName("Тесты класса InMemoryItemSearchEngine")
+public class InMemoryItemSearchEngineTest {
+
+    private ItemRepository itemRepository;
+    private InMemoryItemSearchEngine searchEngine;
+    private Map<Long, Item> items;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        User owner = new User(1L, "Дональд", "donald@yandex.ru");
+        items = Map.of(
+                1L, new Item(1L, "Дрель", "Простая дрель", true, owner, null, null),
+                2L, new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null, null),
+                3L, new Item(3L, "Дрель ударная", "Мощная", false, owner, null, null),
+                4L, new Item(4L, "Клей", "Клей для дерева", true, owner, null, null));
+        itemRepository = Mockito.mock(ItemRepository.class);
+        Mockito.when(itemRepository.findAll()).thenReturn(List.copyOf(items.values()));
+        Mockito.when(itemRepository.findAllById(Mockito.any())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .filter(items::containsKey)
+                        .map(items::get)
+                        .collect(Collectors.toList()));
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+        searchEngine.warmUp();
+    }
+
+    private List<Long> search(String text, int from, int size) {
+        return searchEngine.search(text, PageRequest.of(from, size)).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Тест поиска по подстроке без учёта регистра только среди доступных Item")
+    void searchTest() {
+        Assertions.assertEquals(List.of(1L), search("дРеЛь", 0, 10));
+        Assertions.assertEquals(List.of(2L), search("аккУМ", 0, 10));
+        Assertions.assertEquals(List.of(4L), search("дерев", 0, 10));
+        Assertions.assertEquals(List.of(), search("пила", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Тест поиска по короткому запросу и постраничного вывода")
+    void searchShortTextAndPagingTest() {
+        Assertions.assertEquals(List.of(1L, 2L, 4L), search("е", 0, 10));
+        Assertions.assertEquals(List.of(1L, 2L), search("е", 0, 2));
+        Assertions.assertEquals(List.of(4L), search("е", 1, 2));
+    }
+
+    @Test
+    @DisplayName("Тест синхронизации индекса при обновлении и удалении Item")
+    void indexAndRemoveTest() {
+        Item item = items.get(3L);
+        item.setAvailable(true);
+        searchEngine.index(item);
+        Assertions.assertEquals(List.of(1L, 3L), search("дрель", 0, 10));
+
+        item.setName("Перфоратор");
+        item.setDescription("Ударный");
+        searchEngine.index(item);
+        Assertions.assertEquals(List.of(1L), search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(3L), search("перфо", 0, 10));
+
+        searchEngine.remove(3L);
+        Assertions.assertEquals(List.of(), search("перфо", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Тест применения изменений из транзакции только после commit")
+    void afterCommitTest() {
+        Item item = items.get(1L);
+        item.setName("Перфоратор");
+        item.setDescription("Ударный");
+
+        TransactionSynchronizationManager.initSynchronization(); // транзакция откатывается
+        try {
+            searchEngine.index(item);
+            searchEngine.remove(2L);
+            Assertions.assertEquals(List.of(1L), search("дрель", 0, 10));
+        } finally {
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager
+                    .getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertEquals(List.of(1L), search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(2L), search("отверт", 0, 10));
+
+        TransactionSynchronizationManager.initSynchronization(); // транзакция фиксируется
+        try {
+            searchEngine.index(item);
+            searchEngine.remove(2L);
+            Assertions.assertEquals(List.of(1L), search("дрель", 0, 10));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertEquals(List.of(), search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(1L), search("перфо", 0, 10));
+        Assertions.assertEquals(List.of(), search("отверт", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Тест: запоздавшее изменение с меньшей version не перезаписывает индекс")
+    void staleVersionTest() {
+        Item item = items.get(1L);
+        item.setVersion(2L);
+        searchEngine.index(item);
+
+        searchEngine.index(new Item(1L, "Отбойник", "Старое описание", true, item.getOwner(), null, 1L));
+
+        Assertions.assertEquals(List.of(1L), search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(), search("отбой", 0, 10));
+    }
+}
@@ -7,11 +7,11 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoSession;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -20,13 +20,15 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -56,13 +58,16 @@ public class ItemRequestServiceTest {
     @BeforeEach
     void init() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
-        itemRequestServiceImpl = new ItemRequestServiceImpl(itemRequestRepository, itemRepository, userRepository);
+        itemRequestServiceImpl = new ItemRequestServiceImpl(itemRequestRepository, itemRepository,
+                new UserCache(userRepository, 100, Duration.ofMinutes(5)));
         mockUser1 = new User(1L, "Дональд", "donald@yandex.ru");
         mockUser2 = new User(2L, "Джо", "joe@yandex.ru");
-        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L);
-        mockItem2 = new Item(2L, "Молот", "Сила заключённая в предмете", true, mockUser2, 2L);
-        mockItemRequest1 = new ItemRequest(1L, "Требуется серп", mockUser2, LocalDateTime.of(2021, 12, 12, 1, 1, 1));
-        mockItemRequest2 = new ItemRequest(2L, "Требуется молот", mockUser1, LocalDateTime.of(2021, 12, 12, 1, 1, 1));
+        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L, null);
+        mockItem2 = new Item(2L, "Молот", "Сила заключённая в предмете", true, mockUser2, 2L, null);
+        mockItemRequest1 = new ItemRequest(1L, "Требуется серп", mockUser2,
+                LocalDateTime.of(2021, 12, 12, 1, 1, 1), null);
+        mockItemRequest2 = new ItemRequest(2L, "Требуется молот", mockUser1,
+                LocalDateTime.of(2021, 12, 12, 1, 1, 1), null);
     }
 
     @AfterEach
@@ -114,11 +119,14 @@ public class ItemRequestServiceTest {
                 .when(itemRequestRepository.findAllByRequestor_idOrderByCreatedAsc(Mockito.any()))
                 .thenReturn(itemRequests);
         Mockito
-                .when(itemRepository.findAllByRequestIdOrderByIdAsc(Mockito.any()))
-                .thenReturn(List.of());
+                .when(itemRepository.findAllByRequestIdInOrderByIdAsc(List.of(itemRequest.getId())))
+                .thenReturn(List.of(mockItem1));
         List<ItemRequestResponseDto> result = itemRequestServiceImpl.getAllForRequestor(user.getId());
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(List.of(mockItem1.getId()), result.get(0).getItems().stream()
+                .map(ItemResponseDto::getId).collect(Collectors.toList()));
+        Mockito.verify(itemRequestRepository, Mockito.times(1)).findAllByRequestor_idOrderByCreatedAsc(user.getId());
     }
 
     @Test
@@ -151,15 +159,12 @@ public class ItemRequestServiceTest {
                 .when(userRepository.findById(user.getId()))
                 .thenReturn(Optional.of(user));
         Mockito
-                .when(itemRequestRepository.findAllByRequestor_IdNotIn(List.of(user.getId()),
+                .when(itemRequestRepository.findAllByRequestor_IdNot(user.getId(),
                         PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"))))
-                .thenReturn(new PageImpl<>(itemRequests));
+                .thenReturn(itemRequests);
         Mockito
-                .when(itemRepository.findAllByRequestIdOrderByIdAsc(1L))
+                .when(itemRepository.findAllByRequestIdInOrderByIdAsc(List.of(1L, 2L)))
                 .thenReturn(items);
-        Mockito
-                .when(itemRepository.findAllByRequestIdOrderByIdAsc(2L))
-                .thenReturn(new ArrayList<>());
 
         List<ItemRequestResponseDto> result = itemRequestServiceImpl.getAllRequests(0, 10, user.getId());
 
@@ -167,6 +172,10 @@ public class ItemRequestServiceTest {
         Assertions.assertEquals(2, result.size());
         Assertions.assertEquals(1L, result.get(0).getId());
         Assertions.assertEquals(2L, result.get(1).getId());
+        Assertions.assertEquals(1L, result.get(0).getItems().get(0).getId()); // item1.requestId = 1
+        Assertions.assertEquals(2L, result.get(1).getItems().get(0).getId()); // item2.requestId = 2
+        Mockito.verify(itemRepository, Mockito.times(1)).findAllByRequestIdInOrderByIdAsc(Mockito.any());
+        Mockito.verifyNoMoreInteractions(itemRepository);
     }
 
     @Test
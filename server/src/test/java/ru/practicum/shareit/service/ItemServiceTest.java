@@ -12,24 +12,35 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.booking.lastnext.LastNextBookings;
+import ru.practicum.shareit.booking.lastnext.LastNextBookingsSource;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.enums.StatusType;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.EntityVersions;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemBatchErrorDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -57,6 +68,14 @@ public class ItemServiceTest {
     BookingRepository bookingRepository;
     @Mock
     CommentRepository commentRepository;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Mock
+    ItemRequestRepository itemRequestRepository;
+    @Mock
+    LastNextBookingsSource lastNextBookings;
+    @Mock
+    EntityVersions entityVersions;
 
     @InjectMocks
     ItemServiceImpl itemService;
@@ -66,13 +85,15 @@ public class ItemServiceTest {
     @BeforeEach
     void init() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository);
+        itemService = new ItemServiceImpl(itemRepository,
+                new UserCache(userRepository, 100, Duration.ofMinutes(5)), bookingRepository, commentRepository,
+                itemSearchEngine, itemRequestRepository, lastNextBookings, entityVersions);
         mockUser1 = new User(1L, "Дональд", "donald@yandex.ru");
         mockUser2 = new User(2L, "Джо", "joe@yandex.ru");
-        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L);
-        mockItem2 = new Item(2L, "Молот", "Сила заключённая в предмете", true, mockUser2, 2L);
-        mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1), LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED);
-        mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1), LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED);
+        mockItem1 = new Item(1L, "Серп", "Часть чего то важного", true, mockUser1, 1L, null);
+        mockItem2 = new Item(2L, "Молот", "Сила заключённая в предмете", true, mockUser2, 2L, null);
+        mockBooking1 = new Booking(1L, LocalDateTime.of(2021, 12, 12, 1, 1), LocalDateTime.of(2021, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED, null, null);
+        mockBooking2 = new Booking(2L, LocalDateTime.of(2024, 12, 12, 1, 1), LocalDateTime.of(2024, 12, 22, 1, 1), mockItem1, mockUser2, StatusType.APPROVED, null, null);
     }
 
     @AfterEach
@@ -92,10 +113,52 @@ public class ItemServiceTest {
                 .thenReturn(ItemMapper.dtoToItem(itemDto));
         ItemDto itemDto2 = itemService.create(itemDto, mockUser1.getId());
         Mockito.verify(itemRepository, Mockito.times(1)).save(mockItem1);
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).index(Mockito.any(Item.class));
         Assertions.assertNotNull(itemDto2);
         Assertions.assertEquals(itemDto.getName(), itemDto2.getName());
     }
 
+    @Test
+    @DisplayName("Тест на пакетное создание Item с ошибками в отдельных строках")
+    @SuppressWarnings("unchecked")
+    public void createBatchTest() {
+        ItemDto valid = ItemDto.builder().id(99L).name("Серп").description("Часть чего то важного").available(true)
+                .requestId(1L).build();
+        ItemDto noName = ItemDto.builder().name(" ").description("Описание").available(true).build();
+        ItemDto noAvailable = ItemDto.builder().name("Молот").description("Описание").build();
+        ItemDto unknownRequest = ItemDto.builder().name("Молот").description("Описание").available(true)
+                .requestId(5L).build();
+        ItemDto tooLong = ItemDto.builder().name("Молот").description("д".repeat(513)).available(true).build();
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(mockUser1));
+        Mockito
+                .when(itemRequestRepository.findExistingIds(Set.of(1L, 5L)))
+                .thenReturn(List.of(1L));
+        Mockito
+                .when(itemRepository.saveAll(Mockito.anyList()))
+                .thenAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    items.forEach(item -> item.setId(7L));
+                    return items;
+                });
+
+        ItemBatchResultDto result = itemService.createBatch(
+                Arrays.asList(valid, noName, null, noAvailable, unknownRequest, tooLong), mockUser1.getId());
+
+        Assertions.assertEquals(1, result.getCreated().size());
+        Assertions.assertEquals(7L, result.getCreated().get(0).getId());
+        Assertions.assertEquals(List.of(
+                new ItemBatchErrorDto(1, "Не задано name."),
+                new ItemBatchErrorDto(2, "Пустая строка."),
+                new ItemBatchErrorDto(3, "Не задано available."),
+                new ItemBatchErrorDto(4, "Нет такого ItemRequest."),
+                new ItemBatchErrorDto(5, "description длиннее 512 символов.")), result.getErrors());
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).index(Mockito.any(Item.class));
+        Mockito.verify(itemRequestRepository).findAllById(Set.of(1L)); // ETag ItemRequest
+        Mockito.verify(entityVersions).increment(Mockito.anyList());
+    }
+
 
     @Test
     @DisplayName("Тест на создание Item повторные тесты")
@@ -221,6 +284,52 @@ public class ItemServiceTest {
         Assertions.assertEquals(CommentMapper.listCommentsToListResponse(comments), itemResponseDto.getComments());
     }
 
+    @Test
+    @DisplayName("Тест на получение Item по ID для User Owner из источника last/next Booking")
+    public void testGetByIdForOwnerFromLastNextSource() {
+        Mockito
+                .when(itemRepository.findById(mockItem1.getId()))
+                .thenReturn(Optional.of(mockItem1));
+        Mockito
+                .when(lastNextBookings.find(eq(mockItem1.getId()), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new LastNextBookings(BookingMapper.bookingToShort(mockBooking1),
+                        BookingMapper.bookingToShort(mockBooking2))));
+
+        ItemResponseDto itemResponseDto = itemService.getById(mockItem1.getId(), mockUser1.getId());
+
+        Assertions.assertEquals(mockBooking1.getId(), itemResponseDto.getLastBooking().getId());
+        Assertions.assertEquals(mockBooking2.getId(), itemResponseDto.getNextBooking().getId());
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    @DisplayName("Тест на получение ETag Item для User, User Owner и без источника last/next Booking")
+    public void testGetETag() {
+        Mockito
+                .when(itemRepository.findVersionById(mockItem1.getId()))
+                .thenReturn(Optional.of(new ItemVersion(3L, mockUser1.getId())));
+        Mockito
+                .when(lastNextBookings.find(eq(mockItem1.getId()), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new LastNextBookings(BookingMapper.bookingToShort(mockBooking1), null)))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertEquals(Optional.of("\"3\""), itemService.getETag(mockItem1.getId(), mockUser2.getId()));
+        Assertions.assertEquals(Optional.of("\"3-" + mockBooking1.getId() + "-0\""),
+                itemService.getETag(mockItem1.getId(), mockUser1.getId()));
+        Assertions.assertEquals(Optional.empty(), itemService.getETag(mockItem1.getId(), mockUser1.getId()));
+        Mockito.verify(itemRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Тест на получение ETag несуществующего Item")
+    public void testGetETagItemNotFound() {
+        Mockito
+                .when(itemRepository.findVersionById(99L))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThrows(EntityNotFoundException.class, () -> itemService.getETag(99L, mockUser1.getId()));
+    }
+
     @Test
     @DisplayName("Тест на получение списка всех своих Item для User Owner")
     public void testGetAllByOwner() {
@@ -262,20 +371,18 @@ public class ItemServiceTest {
         List<Comment> comments = List.of(comment1, comment2);
 
         Mockito
-                .when(commentRepository.findAllByItem_Id(item1.getId()))
+                .when(commentRepository.findAllByItemIdIn(List.of(item1.getId(), item2.getId())))
                 .thenReturn(comments);
 
         Booking lastBooking = mockBooking1;
         Booking nextBooking = mockBooking2;
+        nextBooking.setStart(LocalDateTime.now().plusDays(1));
+        nextBooking.setEnd(LocalDateTime.now().plusDays(2));
 
         Mockito
-                .when(bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
-                        eq(1L), Mockito.any(LocalDateTime.class), eq(StatusType.APPROVED)))
-                .thenReturn(lastBooking);
-        Mockito
-                .when(bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
-                        eq(1L), Mockito.any(LocalDateTime.class), eq(StatusType.APPROVED)))
-                .thenReturn(nextBooking);
+                .when(bookingRepository.findLastAndNextApprovedByItemIds(
+                        eq(List.of(item1.getId(), item2.getId())), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking, nextBooking));
 
         itemService.create(ItemMapper.itemToDto(item1), userOwner.getId());
         itemService.create(ItemMapper.itemToDto(item2), userOwner.getId());
@@ -296,6 +403,55 @@ public class ItemServiceTest {
         Assertions.assertTrue(itemResponseDto2.getComments().isEmpty());
         Assertions.assertNull(itemResponseDto2.getLastBooking());
         Assertions.assertNull(itemResponseDto2.getNextBooking());
+
+        Mockito.verify(commentRepository, Mockito.never()).findAllByItem_Id(Mockito.any());
+        Mockito.verify(bookingRepository, Mockito.never()).findFirstByItemIdAndStartBeforeAndStatusOrderByEndDesc(
+                Mockito.anyLong(), Mockito.any(), Mockito.any());
+        Mockito.verify(bookingRepository, Mockito.never()).findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(
+                Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Тест на получение пустого списка Item для User Owner без вещей")
+    public void testGetAllByOwnerEmpty() {
+        Mockito
+                .when(userRepository.findById(mockUser1.getId()))
+                .thenReturn(Optional.of(mockUser1));
+        Mockito
+                .when(itemRepository.findAllByOwnerIdOrderByIdAsc(1L, PageRequest.of(0, 10)))
+                .thenReturn(List.of());
+
+        List<ItemResponseDto> itemResponseDtos = itemService.getAllByOwner(0, 10, mockUser1.getId());
+
+        Assertions.assertTrue(itemResponseDtos.isEmpty());
+        Mockito.verifyNoInteractions(commentRepository, bookingRepository);
+    }
+
+    @Test
+    @DisplayName("Тест на получение списка Item для User Owner: last/next из источника и запросом для остальных")
+    public void testGetAllByOwnerFromLastNextSource() {
+        Mockito
+                .when(userRepository.findById(mockUser1.getId()))
+                .thenReturn(Optional.of(mockUser1));
+        Mockito
+                .when(itemRepository.findAllByOwnerIdOrderByIdAsc(1L, PageRequest.of(0, 10)))
+                .thenReturn(List.of(mockItem1, mockItem2));
+        Mockito
+                .when(lastNextBookings.findAll(eq(List.of(1L, 2L)), Mockito.any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, new LastNextBookings(BookingMapper.bookingToShort(mockBooking1), null)));
+        mockBooking2.setItem(mockItem2);
+        mockBooking2.setStart(LocalDateTime.now().plusDays(1));
+        Mockito
+                .when(bookingRepository.findLastAndNextApprovedByItemIds(eq(List.of(2L)),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(mockBooking2));
+
+        List<ItemResponseDto> itemResponseDtos = itemService.getAllByOwner(0, 10, mockUser1.getId());
+
+        Assertions.assertEquals(mockBooking1.getId(), itemResponseDtos.get(0).getLastBooking().getId());
+        Assertions.assertNull(itemResponseDtos.get(0).getNextBooking());
+        Assertions.assertNull(itemResponseDtos.get(1).getLastBooking());
+        Assertions.assertEquals(mockBooking2.getId(), itemResponseDtos.get(1).getNextBooking().getId());
     }
 
     @Test
@@ -304,8 +460,8 @@ public class ItemServiceTest {
         ItemDto itemDto = ItemMapper.itemToDto(mockItem1);
 
         Mockito
-                .when(userRepository.existsById(Mockito.any()))
-                .thenReturn(true);
+                .when(userRepository.findById(Mockito.any()))
+                .thenReturn(Optional.of(mockUser1));
         Mockito
                 .when(itemRepository.findById(1L))
                 .thenReturn(Optional.of(mockItem1));
@@ -318,11 +474,11 @@ public class ItemServiceTest {
         itemService.deleteById(1L, 1L);
 
         Mockito.verify(itemRepository, Mockito.times(1)).deleteItemByIdAndOwner_Id(1L, 1L);
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).remove(1L);
         Mockito.verify(itemRepository, Mockito.times(2)).findById(Mockito.any());
         Mockito.verify(itemRepository, Mockito.never()).save(Mockito.any());
         Mockito.verify(itemRepository, Mockito.times(1)).existsById(Mockito.any());
-        Mockito.verify(userRepository, Mockito.never()).findById(1L);
-        Mockito.verify(userRepository, Mockito.times(1)).existsById(1L);
+        Mockito.verify(userRepository, Mockito.times(1)).findById(1L); // проверка User через UserCache
         Mockito.verifyNoMoreInteractions(userRepository);
     }
 
@@ -336,8 +492,8 @@ public class ItemServiceTest {
                 .when(itemRepository.findById(item.getId()))
                 .thenReturn(Optional.of(new Item()));
         Mockito
-                .when(userRepository.existsById(user.getId()))
-                .thenReturn(false);
+                .when(userRepository.findById(user.getId()))
+                .thenReturn(Optional.empty());
 
         Assertions.assertThrows(EntityNotFoundException.class, () -> {
             itemService.deleteById(item.getId(), user.getId());
@@ -357,7 +513,7 @@ public class ItemServiceTest {
         item.setOwner(owner);
 
         Mockito.when(itemRepository.findById(id)).thenReturn(Optional.of(item));
-        Mockito.when(userRepository.existsById(userOwnerId)).thenReturn(true);
+        Mockito.when(userRepository.findById(userOwnerId)).thenReturn(Optional.of(mockUser2));
 
         Assertions.assertThrows(ResponseStatusException.class, () -> {
             itemService.deleteById(id, userOwnerId);
@@ -377,7 +533,7 @@ public class ItemServiceTest {
 
         Pageable pageable = PageRequest.of(from, size);
         Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        Mockito.when(itemRepository.findByText(text, pageable)).thenReturn(items);
+        Mockito.when(itemSearchEngine.search(text, pageable)).thenReturn(items);
 
         List<ItemDto> result = itemService.search(from, size, text, user.getId());
 
@@ -453,7 +609,6 @@ public class ItemServiceTest {
     public void addCommentTest() {
         User user = mockUser1;
         Item item = mockItem1;
-        Booking booking = mockBooking1;
 
         CommentDto commentDto = CommentDto.builder()
                 .text("comment")
@@ -461,8 +616,9 @@ public class ItemServiceTest {
 
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        Mockito.when(bookingRepository.findAllByBooker_IdAndItem_IdAndEndBefore(Mockito.any(), Mockito.any(), Mockito.any(LocalDateTime.class)))
-                .thenReturn(Collections.singletonList(booking));
+        Mockito.when(bookingRepository.existsByBooker_IdAndItem_IdAndEndBefore(eq(1L), eq(1L),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(true);
         Mockito.when(commentRepository.save(any(Comment.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         CommentResponseDto result = itemService.addComment(commentDto, 1L, 1L);
@@ -474,7 +630,9 @@ public class ItemServiceTest {
 
         Mockito.verify(userRepository).findById(1L);
         Mockito.verify(itemRepository).findById(1L);
-        Mockito.verify(bookingRepository).findAllByBooker_IdAndItem_IdAndEndBefore(Mockito.any(), Mockito.any(), Mockito.any(LocalDateTime.class));
+        Mockito.verify(entityVersions).increment(List.of(item)); // ETag Item
+        Mockito.verify(bookingRepository).existsByBooker_IdAndItem_IdAndEndBefore(eq(1L), eq(1L),
+                Mockito.any(LocalDateTime.class));
         Mockito.verify(commentRepository).save(any(Comment.class));
     }
 }
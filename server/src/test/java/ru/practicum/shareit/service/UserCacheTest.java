@@ -0,0 +1,71 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@DisplayName("Тесты класса UserCache")
+public class UserCacheTest {
+
+    private final User user = new User(1L, "Дональд", "donald@yandex.ru");
+
+    private UserRepository userRepository;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.findById(2L)).thenReturn(Optional.empty());
+        userCache = new UserCache(userRepository, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Тест: существующий User читается из БД один раз, отсутствующий не кэшируется")
+    void findTest() {
+        Assertions.assertTrue(userCache.exists(1L));
+        Assertions.assertEquals(user, userCache.find(1L).orElseThrow());
+        Assertions.assertFalse(userCache.exists(2L));
+        Assertions.assertFalse(userCache.exists(2L));
+
+        Mockito.verify(userRepository, Mockito.times(1)).findById(1L);
+        Mockito.verify(userRepository, Mockito.times(2)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Тест: find отдаёт копию, evict заставляет перечитать User")
+    void copyAndEvictTest() {
+        userCache.find(1L).orElseThrow().setName("Изменён снаружи");
+        Assertions.assertEquals("Дональд", userCache.find(1L).orElseThrow().getName());
+
+        userCache.evict(1L);
+        userCache.find(1L);
+
+        Mockito.verify(userRepository, Mockito.times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Тест метрик попаданий и промахов кэша")
+    void metricsTest() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userCache.bindTo(registry);
+
+        userCache.exists(1L);
+        userCache.exists(1L);
+        userCache.exists(1L);
+
+        Assertions.assertEquals(2.0, registry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+        Assertions.assertEquals(1.0, registry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count());
+    }
+}
@@ -8,14 +8,24 @@ import org.mockito.MockitoSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.lastnext.LastNextBookingsSource;
+import ru.practicum.shareit.cache.EntityVersions;
+import ru.practicum.shareit.cache.SecondLevelCache;
 import ru.practicum.shareit.exception.EmailDuplicateException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +38,18 @@ public class UserServiceTest {
     private User mockUser2;
     @Mock
     UserRepository userRepository;
+    @Mock
+    LastNextBookingsSource lastNextBookings;
+    @Mock
+    ItemRepository itemRepository;
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Mock
+    ItemRequestRepository itemRequestRepository;
+    @Mock
+    SecondLevelCache secondLevelCache;
+    @Mock
+    EntityVersions entityVersions;
     UserServiceImpl userService;
 
     private MockitoSession session;
@@ -35,7 +57,9 @@ public class UserServiceTest {
     @BeforeEach
     void init() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, lastNextBookings,
+                new UserCache(userRepository, 100, Duration.ofMinutes(5)), itemRepository, itemSearchEngine,
+                itemRequestRepository, secondLevelCache, entityVersions);
         mockUser1 = new User(1L, "Дональд", "donald@yandex.ru");
         mockUser2 = new User(2L, "Джо", "joe@yandex.ru");
     }
@@ -108,25 +132,55 @@ public class UserServiceTest {
 
         User user1 = UserMapper.dtoToUser(userService.create(userDto1));
 
-        Mockito.when((userRepository.existsById(Mockito.any())))
-                .thenReturn(true);
+        Mockito.when((userRepository.findById(Mockito.any())))
+                .thenReturn(Optional.of(mockUser1));
+        Mockito.when(itemRepository.findIdsByOwnerId(1L))
+                .thenReturn(List.of(5L, 6L));
 
         userService.deleteById(1L);
         Mockito.verify(userRepository, Mockito.times(1)).deleteById(1L);
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).remove(5L); // Item владельца удалены каскадом
+        Mockito.verify(itemSearchEngine, Mockito.times(1)).remove(6L);
+        Mockito.verify(lastNextBookings, Mockito.times(1)).onUserDeleted(1L); // его Booking удалены каскадом
+        Mockito.verify(secondLevelCache, Mockito.times(1)).evictItemsAndRequests();
+    }
+
+    @Test
+    @DisplayName("Тест: при удалении User растут версии Item с его Comment и ItemRequest с ответами его Item")
+    public void deleteByIdVersionsTest() {
+        Mockito.when((userRepository.findById(Mockito.any())))
+                .thenReturn(Optional.of(mockUser1));
+        Mockito.when(itemRepository.findRequestIdsByOwnerId(1L))
+                .thenReturn(List.of(7L));
+        Item commented = Item.builder().id(5L).build();
+        ItemRequest answered = ItemRequest.builder().id(7L).build();
+        Mockito.when(itemRepository.findAllCommentedBy(1L))
+                .thenReturn(List.of(commented));
+        Mockito.when(itemRequestRepository.findAllById(List.of(7L)))
+                .thenReturn(List.of(answered));
+
+        userService.deleteById(1L);
+        Mockito.verify(entityVersions, Mockito.times(1)).increment(List.of(commented));
+        Mockito.verify(entityVersions, Mockito.times(1)).increment(List.of(answered));
+
+        Mockito.when(itemRepository.findRequestIdsByOwnerId(2L))
+                .thenReturn(List.of());
+        userService.deleteById(2L);
+        Mockito.verify(itemRequestRepository, Mockito.never()).findAllById(List.of());
     }
 
     @Test
     @DisplayName("Тест на удаление User c несуществующим ID")
     public void deleteByIdNoUserTest() {
         long id = 2L;
-        Mockito.when(userRepository.existsById(id))
-                .thenReturn(false);
+        Mockito.when(userRepository.findById(id))
+                .thenReturn(Optional.empty());
 
         EntityNotFoundException exception = Assertions.assertThrows(
                 EntityNotFoundException.class,
                 () -> userService.deleteById(id));
         Assertions.assertEquals("User не найден", exception.getMessage());
-        Mockito.verify(userRepository, Mockito.times(1)).existsById(id);
+        Mockito.verify(userRepository, Mockito.times(1)).findById(id);
         Mockito.verify(userRepository, Mockito.times(0)).deleteById(id);
     }
 